@@ -0,0 +1,141 @@
+package dev.springwebflux.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import dev.springwebflux.domain.Anime;
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Hand-written Jackson serializer and deserializer for {@link Anime}, so the hottest document
+ * shape is read and written field by field, without bean introspection or reflective accessors.
+ * The output is the same as the reflective one: declaration order, nulls included, and
+ * {@code updatedAt} written with whatever serializer the mapper has for {@link LocalDateTime}.
+ * {@code updatedAt} and {@code version} are ignored on input. Uncommon token types fall back to the
+ * mapper's own deserializers, so coercions and errors stay the same.
+ */
+public class AnimeJsonModule extends SimpleModule {
+
+  private static final String ID = "id";
+  private static final String NAME = "name";
+  private static final String UPDATED_AT = "updatedAt";
+  private static final String VERSION = "version";
+
+  public AnimeJsonModule() {
+    super(AnimeJsonModule.class.getSimpleName());
+    addSerializer(Anime.class, new AnimeSerializer(null));
+    addDeserializer(Anime.class, new AnimeDeserializer());
+  }
+
+  static final class AnimeSerializer extends StdSerializer<Anime> implements ContextualSerializer {
+
+    private static final SerializableString ID_FIELD = new SerializedString(ID);
+    private static final SerializableString NAME_FIELD = new SerializedString(NAME);
+    private static final SerializableString UPDATED_AT_FIELD = new SerializedString(UPDATED_AT);
+    private static final SerializableString VERSION_FIELD = new SerializedString(VERSION);
+
+    private final JsonSerializer<Object> updatedAtSerializer;
+
+    AnimeSerializer(JsonSerializer<Object> updatedAtSerializer) {
+      super(Anime.class);
+      this.updatedAtSerializer = updatedAtSerializer;
+    }
+
+    @Override
+    public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property) throws JsonMappingException {
+      return updatedAtSerializer != null
+          ? this
+          : new AnimeSerializer(provider.findValueSerializer(LocalDateTime.class, property));
+    }
+
+    @Override
+    public void serialize(Anime anime, JsonGenerator generator, SerializerProvider provider) throws IOException {
+      generator.writeStartObject(anime);
+      generator.writeFieldName(ID_FIELD);
+      if (anime.getId() == null)
+        generator.writeNull();
+      else
+        generator.writeNumber(anime.getId());
+      generator.writeFieldName(NAME_FIELD);
+      generator.writeString(anime.getName());
+      generator.writeFieldName(UPDATED_AT_FIELD);
+      if (anime.getUpdatedAt() == null)
+        generator.writeNull();
+      else
+        updatedAtSerializer.serialize(anime.getUpdatedAt(), generator, provider);
+      generator.writeFieldName(VERSION_FIELD);
+      if (anime.getVersion() == null)
+        generator.writeNull();
+      else
+        generator.writeNumber(anime.getVersion());
+      generator.writeEndObject();
+    }
+  }
+
+  static final class AnimeDeserializer extends StdDeserializer<Anime> {
+
+    AnimeDeserializer() {
+      super(Anime.class);
+    }
+
+    @Override
+    public Anime deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+      String field;
+      if (parser.isExpectedStartObjectToken())
+        field = parser.nextFieldName();
+      else if (parser.hasToken(JsonToken.FIELD_NAME))
+        field = parser.getCurrentName();
+      else
+        return (Anime) context.handleUnexpectedToken(Anime.class, parser);
+
+      Anime anime = new Anime();
+      for (; field != null; field = parser.nextFieldName()) {
+        parser.nextToken();
+        switch (field) {
+          case ID:
+            anime.setId(readId(parser, context));
+            break;
+          case NAME:
+            anime.setName(readName(parser, context));
+            break;
+          case UPDATED_AT:
+          case VERSION:
+            // read only, set by the database on every write
+            parser.skipChildren();
+            break;
+          default:
+            handleUnknownProperty(parser, context, anime, field);
+        }
+      }
+      return anime;
+    }
+
+    private static Integer readId(JsonParser parser, DeserializationContext context) throws IOException {
+      if (parser.hasToken(JsonToken.VALUE_NUMBER_INT))
+        return parser.getIntValue();
+      return readNullable(parser, context, Integer.class);
+    }
+
+    private static String readName(JsonParser parser, DeserializationContext context) throws IOException {
+      if (parser.hasToken(JsonToken.VALUE_STRING))
+        return parser.getText();
+      return readNullable(parser, context, String.class);
+    }
+
+    private static <T> T readNullable(JsonParser parser, DeserializationContext context, Class<T> type) throws IOException {
+      return parser.hasToken(JsonToken.VALUE_NULL) ? null : context.readValue(parser, type);
+    }
+  }
+}
@@ -0,0 +1,22 @@
+package dev.springwebflux.config;
+
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.context.ApplicationListener;
+import reactor.blockhound.BlockHound;
+
+/**
+ * Installs BlockHound when {@code app.blockhound.enabled} is set, e.g. through the {@code blockhound}
+ * profile. Runs once the environment, including profile specific files, is ready and before any
+ * bean is created. Off by default: the instrumentation slows every thread down and a detected
+ * blocking call fails the request it happens in.
+ */
+public class BlockHoundInstaller implements ApplicationListener<ApplicationEnvironmentPreparedEvent> {
+
+  static final String ENABLED_PROPERTY = "app.blockhound.enabled";
+
+  @Override
+  public void onApplicationEvent(ApplicationEnvironmentPreparedEvent event) {
+    if (event.getEnvironment().getProperty(ENABLED_PROPERTY, Boolean.class, false))
+      BlockHound.install();
+  }
+}
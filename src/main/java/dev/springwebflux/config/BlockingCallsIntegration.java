@@ -0,0 +1,18 @@
+package dev.springwebflux.config;
+
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.integration.BlockHoundIntegration;
+
+/**
+ * Blocking calls BlockHound should tolerate. Picked up through {@code META-INF/services} by every
+ * {@link BlockHound#install} call, including the ones in the tests.
+ */
+public class BlockingCallsIntegration implements BlockHoundIntegration {
+
+  @Override
+  public void applyTo(BlockHound.Builder builder) {
+    builder.allowBlockingCallsInside("java.util.UUID", "randomUUID")
+        .allowBlockingCallsInside("java.io.InputStream", "readNBytes")
+        .allowBlockingCallsInside("java.io.FilterInputStream", "read");
+  }
+}
@@ -0,0 +1,81 @@
+package dev.springwebflux.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import dev.springwebflux.config.properties.AnimeProperties;
+import dev.springwebflux.config.properties.NettyProperties;
+import dev.springwebflux.service.impl.AnimeJsonCache;
+import java.util.List;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.EncoderHttpMessageWriter;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.util.MimeType;
+
+@Configuration
+public class CodecConfig {
+
+  public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+  public static final MediaType APPLICATION_NDJSON = MediaType.valueOf(APPLICATION_NDJSON_VALUE);
+
+  private static final MimeType[] JSON_MIME_TYPES = {
+      MediaType.APPLICATION_JSON, new MediaType("application", "*+json"), APPLICATION_NDJSON
+  };
+
+  /**
+   * Registers {@code application/x-ndjson} with the Jackson codecs as a streaming type, so a
+   * {@code Flux} is written one line per element and flushed as it is produced instead of being
+   * collected into a JSON array. Single anime are written from {@link AnimeJsonCache} unless
+   * {@code app.anime.json-cache.enabled} is false.
+   */
+  @Bean
+  CodecCustomizer ndjsonCodecCustomizer(ObjectMapper objectMapper, AnimeJsonCache animeJsonCache,
+                                        AnimeProperties animeProperties) {
+    return configurer -> {
+      Jackson2JsonEncoder encoder = new Jackson2JsonEncoder(objectMapper, JSON_MIME_TYPES);
+      encoder.setStreamingMediaTypes(List.of(MediaType.APPLICATION_STREAM_JSON, APPLICATION_NDJSON));
+      configurer.defaultCodecs().jackson2JsonEncoder(encoder);
+      configurer.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper, JSON_MIME_TYPES));
+      // custom writers that only take specific types are asked before the Jackson writer
+      if (animeProperties.getJsonCache().isEnabled())
+        configurer.customCodecs().register(new PreEncodedAnimeJsonWriter(animeJsonCache, new EncoderHttpMessageWriter<>(encoder)));
+    };
+  }
+
+  /**
+   * Lets the codecs buffer as much as {@code app.netty.max-body-size} lets in, instead of failing
+   * bodies over the 256KB default that the server has already accepted.
+   */
+  @Bean
+  CodecCustomizer maxInMemorySizeCodecCustomizer(NettyProperties nettyProperties) {
+    return configurer -> configurer.defaultCodecs().maxInMemorySize((int) nettyProperties.getMaxBodySize().toBytes());
+  }
+
+  /**
+   * Spring Boot installs every {@link Module} bean in the {@link ObjectMapper} the codecs share.
+   * Afterburner swaps the reflective accessors of the remaining beans for generated bytecode.
+   */
+  @Bean
+  Module afterburnerModule() {
+    return new AfterburnerModule();
+  }
+
+  @Bean
+  Module animeJsonModule() {
+    return new AnimeJsonModule();
+  }
+
+  /**
+   * The codecs flush the generator themselves after each value, the mapper does not need to.
+   */
+  @Bean
+  Jackson2ObjectMapperBuilderCustomizer jacksonFeaturesCustomizer() {
+    return builder -> builder.featuresToDisable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+  }
+}
@@ -0,0 +1,195 @@
+package dev.springwebflux.config;
+
+import dev.springwebflux.config.properties.NettyProperties;
+import dev.springwebflux.config.properties.StallDetectorProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.HttpResources;
+import reactor.netty.resources.LoopResources;
+import reactor.netty.tcp.TcpResources;
+
+/**
+ * Production safe replacement for BlockHound. A sampler thread keeps one tiny probe task queued on
+ * every Reactor Netty event loop and {@link Schedulers#parallel()} worker. That is the server's own
+ * loops plus the shared client loops of {@link TcpResources}, which the R2DBC driver runs on, and
+ * {@link HttpResources}, which {@code WebClient} runs on. The time a probe waits
+ * before it runs is how long that thread could not serve anything else, and goes to
+ * {@code eventloop.probe.delay}. Once a probe waits longer than the threshold the sampler counts a
+ * stall in {@code eventloop.stalls} and logs the stack of the stuck thread, without touching the
+ * request that is blocking it.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.stall-detector", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class EventLoopStallDetector implements DisposableBean {
+
+  private final StallDetectorProperties properties;
+  private final NettyProperties nettyProperties;
+  private final LoopResources serverLoopResources;
+  private final MeterRegistry meterRegistry;
+  private final List<Probe> probes = new CopyOnWriteArrayList<>();
+  private final List<Disposable> workers = new CopyOnWriteArrayList<>();
+  private final ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "event-loop-stall-detector");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  public EventLoopStallDetector(StallDetectorProperties properties,
+                                NettyProperties nettyProperties,
+                                LoopResources serverLoopResources,
+                                MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.nettyProperties = nettyProperties;
+    this.serverLoopResources = serverLoopResources;
+    this.meterRegistry = meterRegistry;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    Set<EventExecutor> watched = Collections.newSetFromMap(new IdentityHashMap<>());
+    watchAll("http", serverLoopResources.onServer(nettyProperties.isNativeTransport()), watched);
+    watchAll("tcp-client", TcpResources.get().onClient(LoopResources.DEFAULT_NATIVE), watched);
+    watchAll("http-client", HttpResources.get().onClient(LoopResources.DEFAULT_NATIVE), watched);
+    // createWorker() hands out the parallel executors round robin, so this pins one worker per thread
+    Scheduler parallel = Schedulers.parallel();
+    for (int i = 0; i < Schedulers.DEFAULT_POOL_SIZE; i++) {
+      Scheduler.Worker worker = parallel.createWorker();
+      workers.add(worker);
+      watch("parallel", worker::schedule);
+    }
+    long interval = properties.getInterval().toNanos();
+    sampler.scheduleAtFixedRate(this::sample, interval, interval, TimeUnit.NANOSECONDS);
+    log.info("Watching {} event loop threads for stalls over {}", probes.size(), properties.getThreshold());
+  }
+
+  private void watchAll(String group, EventLoopGroup eventLoops, Set<EventExecutor> watched) {
+    for (EventExecutor eventLoop : eventLoops) {
+      // the resources may share loops, each thread only needs one probe
+      if (watched.add(eventLoop))
+        watch(group, eventLoop);
+    }
+  }
+
+  void watch(String group, Executor executor) {
+    Probe probe = new Probe(group, executor);
+    probe.identifyThread();
+    probes.add(probe);
+  }
+
+  void sample() {
+    long now = System.nanoTime();
+    for (Probe probe : probes) {
+      try {
+        probe.sample(now);
+      } catch (RuntimeException e) {
+        log.debug("Could not probe a {} thread", probe.group, e);
+      }
+    }
+  }
+
+  @Override
+  public void destroy() {
+    sampler.shutdownNow();
+    workers.forEach(Disposable::dispose);
+  }
+
+  private final class Probe implements Runnable {
+
+    private final String group;
+    private final Executor executor;
+    private final Timer delay;
+    private final Counter stalls;
+    private final long thresholdNanos = properties.getThreshold().toNanos();
+
+    private volatile Thread thread;
+    private volatile long queuedAt;
+    private boolean stallReported;
+
+    Probe(String group, Executor executor) {
+      this.group = group;
+      this.executor = executor;
+      this.delay = Timer.builder("eventloop.probe.delay")
+          .description("Time a probe task waited before the event loop ran it")
+          .tag("group", group)
+          .register(meterRegistry);
+      this.stalls = Counter.builder("eventloop.stalls")
+          .description("Probes that waited longer than the stall threshold")
+          .tag("group", group)
+          .register(meterRegistry);
+    }
+
+    /**
+     * Sampler thread only. Queues a new probe once the previous one ran, otherwise checks how long
+     * it has been waiting.
+     */
+    void sample(long now) {
+      long queued = queuedAt;
+      if (queued == 0) {
+        stallReported = false;
+        queuedAt = now;
+        try {
+          executor.execute(this);
+        } catch (RuntimeException e) {
+          // never queued, e.g. the loop is shutting down, so there is nothing to wait for
+          queuedAt = 0;
+          throw e;
+        }
+        return;
+      }
+      long waiting = now - queued;
+      if (waiting > thresholdNanos && !stallReported) {
+        stallReported = true;
+        stalls.increment();
+        Thread stalled = thread;
+        IllegalStateException stack = new IllegalStateException("Stack of the stalled thread");
+        if (stalled != null)
+          stack.setStackTrace(stalled.getStackTrace());
+        log.warn("{} thread {} has not run queued tasks for {} ms", group,
+            stalled == null ? "?" : stalled.getName(), TimeUnit.NANOSECONDS.toMillis(waiting), stack);
+      }
+    }
+
+    /**
+     * Learns the thread behind the executor up front, so even the first stall has a stack to log.
+     */
+    void identifyThread() {
+      try {
+        executor.execute(() -> thread = Thread.currentThread());
+      } catch (RuntimeException e) {
+        log.debug("Could not identify a {} thread", group, e);
+      }
+    }
+
+    /**
+     * Event loop side, kept to a clock read and a timer update.
+     */
+    @Override
+    public void run() {
+      thread = Thread.currentThread();
+      delay.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+      queuedAt = 0;
+    }
+  }
+}
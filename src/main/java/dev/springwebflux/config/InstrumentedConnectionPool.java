@@ -0,0 +1,43 @@
+package dev.springwebflux.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.Connection;
+import java.util.concurrent.TimeUnit;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link ConnectionPool} recording how long callers wait for a connection in {@code r2dbc.pool.acquire}.
+ * Pool occupancy gauges (acquired, idle, pending) are bound by Spring Boot for every {@link ConnectionPool} bean.
+ */
+public class InstrumentedConnectionPool extends ConnectionPool {
+
+  private final Timer acquired;
+  private final Timer failed;
+
+  public InstrumentedConnectionPool(ConnectionPoolConfiguration configuration, String name, MeterRegistry meterRegistry) {
+    super(configuration);
+    this.acquired = acquireTimer(name, "success", meterRegistry);
+    this.failed = acquireTimer(name, "error", meterRegistry);
+  }
+
+  @Override
+  public Mono<Connection> create() {
+    return Mono.defer(() -> {
+      long start = System.nanoTime();
+      return super.create()
+          .doOnSuccess(connection -> acquired.record(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+          .doOnError(error -> failed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    });
+  }
+
+  private static Timer acquireTimer(String name, String outcome, MeterRegistry meterRegistry) {
+    return Timer.builder("r2dbc.pool.acquire")
+        .description("Time spent waiting for a pooled connection")
+        .tag("name", name)
+        .tag("outcome", outcome)
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,32 @@
+package dev.springwebflux.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.Repository;
+import org.springframework.util.StringUtils;
+
+@Configuration
+public class MetricsConfig {
+
+  /**
+   * Adds a {@link RepositoryMetricsInterceptor} to every Spring Data repository proxy, tagged with
+   * the repository bean name, e.g. {@code AnimeRepository}. It goes first in the chain: the query
+   * and implementation interceptors Spring Data puts last answer the call without proceeding, so
+   * advice added after them never runs.
+   */
+  @Bean
+  public static BeanPostProcessor repositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof Repository && bean instanceof Advised)
+          ((Advised) bean).addAdvice(0, new RepositoryMetricsInterceptor(meterRegistry, StringUtils.capitalize(beanName)));
+        return bean;
+      }
+    };
+  }
+}
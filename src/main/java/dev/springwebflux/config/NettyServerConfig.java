@@ -0,0 +1,111 @@
+package dev.springwebflux.config;
+
+import dev.springwebflux.config.properties.NettyProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.handler.timeout.IdleStateEvent;
+import io.netty.handler.timeout.IdleStateHandler;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+import java.util.concurrent.TimeUnit;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.channel.BootstrapHandlers;
+import reactor.netty.resources.LoopResources;
+import reactor.netty.tcp.TcpServer;
+
+/**
+ * Runs the Netty server on its own event loops sized from {@code app.netty}, with the native
+ * transport when the platform has one, an explicit buffer allocator, an idle connection timeout and
+ * request size limits. Each loop reports its queued tasks as
+ * {@code reactor.netty.eventloop.pending.tasks}, which keeps growing once the loops are saturated.
+ */
+@Configuration
+public class NettyServerConfig {
+
+  private static final String LOOP_PREFIX = "http";
+  private static final String IDLE_HANDLER = "app.idleConnectionCloser";
+
+  @Bean(destroyMethod = "dispose")
+  public LoopResources serverLoopResources(NettyProperties nettyProperties) {
+    return LoopResources.create(LOOP_PREFIX, nettyProperties.getSelectorCount(), nettyProperties.getWorkerCount(), true);
+  }
+
+  @Bean
+  public WebServerFactoryCustomizer<NettyReactiveWebServerFactory> nettyServerCustomizer(LoopResources serverLoopResources,
+                                                                                         NettyProperties nettyProperties) {
+    ByteBufAllocator allocator = nettyProperties.isPooledAllocator()
+        ? PooledByteBufAllocator.DEFAULT
+        : UnpooledByteBufAllocator.DEFAULT;
+    long idleTimeoutNanos = nettyProperties.getIdleTimeout().toNanos();
+    return factory -> factory.addServerCustomizers(httpServer -> httpServer
+        // every call starts from a fresh decoder spec, so this one replaces Spring Boot's
+        .httpRequestDecoder(decoder -> decoder
+            .maxInitialLineLength((int) nettyProperties.getMaxInitialLineLength().toBytes())
+            .maxHeaderSize((int) nettyProperties.getMaxHeaderSize().toBytes()))
+        .tcpConfiguration(tcp -> closeIdleConnections(tcp
+            .runOn(serverLoopResources, nettyProperties.isNativeTransport())
+            .selectorOption(ChannelOption.ALLOCATOR, allocator)
+            .option(ChannelOption.ALLOCATOR, allocator), idleTimeoutNanos)));
+  }
+
+  @Bean
+  public RequestBodyLimitFilter requestBodyLimitFilter(NettyProperties nettyProperties) {
+    return new RequestBodyLimitFilter(nettyProperties.getMaxBodySize().toBytes());
+  }
+
+  @Bean
+  public MeterBinder eventLoopMetrics(LoopResources serverLoopResources, NettyProperties nettyProperties) {
+    return registry -> {
+      boolean useNative = nettyProperties.isNativeTransport();
+      bindPendingTasks(registry, "selector", serverLoopResources.onServerSelect(useNative));
+      bindPendingTasks(registry, "worker", serverLoopResources.onServer(useNative));
+    };
+  }
+
+  private static TcpServer closeIdleConnections(TcpServer tcp, long idleTimeoutNanos) {
+    if (idleTimeoutNanos <= 0)
+      return tcp;
+    return tcp.bootstrap(bootstrap -> BootstrapHandlers.updateConfiguration(bootstrap, IDLE_HANDLER,
+        (observer, channel) -> channel.pipeline().addFirst(IDLE_HANDLER, new IdleConnectionCloser(idleTimeoutNanos))));
+  }
+
+  private static void bindPendingTasks(MeterRegistry registry, String group, EventLoopGroup eventLoops) {
+    int index = 0;
+    for (EventExecutor eventLoop : eventLoops) {
+      if (eventLoop instanceof SingleThreadEventExecutor)
+        Gauge.builder("reactor.netty.eventloop.pending.tasks", (SingleThreadEventExecutor) eventLoop,
+            SingleThreadEventExecutor::pendingTasks)
+            .description("Tasks queued on the event loop and not run yet")
+            .tag("group", group)
+            .tag("index", String.valueOf(index))
+            .register(registry);
+      index++;
+    }
+  }
+
+  /**
+   * Closes a connection once nothing was read or written for the timeout, whether it sits between
+   * keep-alive requests or a client stopped sending in the middle of one.
+   */
+  private static final class IdleConnectionCloser extends IdleStateHandler {
+
+    IdleConnectionCloser(long idleTimeoutNanos) {
+      super(0, 0, idleTimeoutNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    protected void channelIdle(ChannelHandlerContext ctx, IdleStateEvent event) {
+      ctx.close();
+    }
+  }
+}
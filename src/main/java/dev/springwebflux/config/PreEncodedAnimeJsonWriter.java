@@ -0,0 +1,96 @@
+package dev.springwebflux.config;
+
+import dev.springwebflux.domain.Anime;
+import dev.springwebflux.service.impl.AnimeJsonCache;
+import io.netty.buffer.ByteBuf;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.core.io.buffer.PooledDataBuffer;
+import org.springframework.http.MediaType;
+import org.springframework.http.ReactiveHttpOutputMessage;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * Writes a single {@link Anime} as JSON from {@link AnimeJsonCache} instead of serializing it. On
+ * Netty the body is a retained slice of the cached buffer, so the bytes are neither encoded nor
+ * copied again. Anything else typed as anime, such as listings, goes to the Jackson writer.
+ */
+public class PreEncodedAnimeJsonWriter implements HttpMessageWriter<Anime> {
+
+  private static final List<MediaType> MEDIA_TYPES = List.of(MediaType.APPLICATION_JSON);
+
+  private final AnimeJsonCache animeJsonCache;
+  private final HttpMessageWriter<Object> jsonWriter;
+
+  public PreEncodedAnimeJsonWriter(AnimeJsonCache animeJsonCache, HttpMessageWriter<Object> jsonWriter) {
+    this.animeJsonCache = animeJsonCache;
+    this.jsonWriter = jsonWriter;
+  }
+
+  @Override
+  public List<MediaType> getWritableMediaTypes() {
+    return MEDIA_TYPES;
+  }
+
+  @Override
+  public boolean canWrite(ResolvableType elementType, MediaType mediaType) {
+    return Anime.class.equals(elementType.toClass())
+        && (mediaType == null
+        || (MediaType.APPLICATION_JSON.isCompatibleWith(mediaType)
+        && (mediaType.getCharset() == null || StandardCharsets.UTF_8.equals(mediaType.getCharset()))));
+  }
+
+  @Override
+  public Mono<Void> write(Publisher<? extends Anime> inputStream, ResolvableType actualType, ResolvableType elementType,
+                          MediaType mediaType, ServerHttpRequest request, ServerHttpResponse response,
+                          Map<String, Object> hints) {
+    if (!(inputStream instanceof Mono))
+      return jsonWriter.write(inputStream, actualType, elementType, mediaType, request, response, hints);
+    return write(inputStream, elementType, mediaType, response, hints);
+  }
+
+  @Override
+  public Mono<Void> write(Publisher<? extends Anime> inputStream, ResolvableType elementType, MediaType mediaType,
+                          ReactiveHttpOutputMessage message, Map<String, Object> hints) {
+    if (!(inputStream instanceof Mono))
+      return jsonWriter.write(inputStream, elementType, mediaType, message, hints);
+
+    if (message.getHeaders().getContentType() == null)
+      message.getHeaders().setContentType(mediaType == null || !mediaType.isConcrete() ? MediaType.APPLICATION_JSON : mediaType);
+    return Mono.from(inputStream)
+        .map(anime -> json(anime, message.bufferFactory()))
+        .switchIfEmpty(Mono.defer(() -> {
+          message.getHeaders().setContentLength(0);
+          return message.setComplete().then(Mono.empty());
+        }))
+        .flatMap(body -> {
+          message.getHeaders().setContentLength(body.readableByteCount());
+          return message.writeWith(Mono.just(body)
+              .doOnDiscard(PooledDataBuffer.class, DataBufferUtils::release));
+        });
+  }
+
+  private DataBuffer json(Anime anime, DataBufferFactory bufferFactory) {
+    ByteBuf json = animeJsonCache.retainedJson(anime);
+    if (bufferFactory instanceof NettyDataBufferFactory)
+      return ((NettyDataBufferFactory) bufferFactory).wrap(json);
+    // not a Netty response, the slice cannot travel with it
+    try {
+      DataBuffer copy = bufferFactory.allocateBuffer(json.readableBytes());
+      copy.write(json.nioBuffer());
+      return copy;
+    } finally {
+      json.release();
+    }
+  }
+}
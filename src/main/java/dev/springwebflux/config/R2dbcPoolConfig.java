@@ -0,0 +1,74 @@
+package dev.springwebflux.config;
+
+import dev.springwebflux.config.properties.R2dbcPoolProperties;
+import dev.springwebflux.config.properties.SqlLogProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.proxy.ProxyConnectionFactory;
+import io.r2dbc.spi.ConnectionFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.boot.autoconfigure.r2dbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Mono;
+
+/**
+ * Replaces Spring Boot's pooled {@link ConnectionFactory} so the pool also gets an acquire timeout,
+ * a bounded connection lifetime, an acquire latency timer, warm-up at startup and the sampled
+ * query log of {@link SqlLogListener}.
+ */
+@Slf4j
+@Configuration
+public class R2dbcPoolConfig {
+
+  // Spring Boot tags the pool gauges with the bean name minus its "ConnectionFactory" suffix
+  private static final String POOL_NAME = "anime";
+
+  @Bean(name = POOL_NAME + "ConnectionFactory", destroyMethod = "dispose")
+  public ConnectionPool connectionFactory(R2dbcProperties r2dbcProperties,
+                                          R2dbcPoolProperties poolProperties,
+                                          SqlLogProperties sqlLogProperties,
+                                          ResourceLoader resourceLoader,
+                                          MeterRegistry meterRegistry) {
+    ConnectionFactory connectionFactory = ConnectionFactoryBuilder
+        .of(r2dbcProperties, () -> EmbeddedDatabaseConnection.get(resourceLoader.getClassLoader()))
+        .build();
+    if (sqlLogProperties.isEnabled())
+      connectionFactory = ProxyConnectionFactory.builder(connectionFactory)
+          .listener(new SqlLogListener(sqlLogProperties))
+          .build();
+    R2dbcProperties.Pool pool = r2dbcProperties.getPool();
+    ConnectionPoolConfiguration.Builder builder = ConnectionPoolConfiguration.builder(connectionFactory)
+        .name(POOL_NAME)
+        .initialSize(pool.getInitialSize())
+        .maxSize(pool.getMaxSize())
+        .maxIdleTime(pool.getMaxIdleTime())
+        .maxLifeTime(poolProperties.getMaxLifeTime())
+        .maxAcquireTime(poolProperties.getMaxAcquireTime())
+        .maxCreateConnectionTime(poolProperties.getMaxCreateConnectionTime());
+    if (StringUtils.hasText(pool.getValidationQuery()))
+      builder.validationQuery(pool.getValidationQuery());
+    return new InstrumentedConnectionPool(builder.build(), POOL_NAME, meterRegistry);
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "app.r2dbc.pool", name = "warm-up", havingValue = "true", matchIfMissing = true)
+  public ApplicationRunner connectionPoolWarmUp(ConnectionPool connectionPool, R2dbcPoolProperties poolProperties) {
+    // runs on the main thread before the application reports ready, a database that is down only costs a warning
+    return args -> connectionPool.warmup()
+        .timeout(poolProperties.getMaxCreateConnectionTime())
+        .doOnNext(warmed -> log.info("Warmed up {} connections in pool '{}'", warmed, POOL_NAME))
+        .onErrorResume(error -> {
+          log.warn("Could not warm up pool '{}': {}", POOL_NAME, error.toString());
+          return Mono.empty();
+        })
+        .block();
+  }
+}
@@ -0,0 +1,69 @@
+package dev.springwebflux.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Times every {@link Mono} or {@link Flux} returned by a repository in
+ * {@code spring.data.repository.invocations}, from subscription until it completes, fails or is
+ * cancelled. Anything else a repository returns is passed through untouched.
+ */
+class RepositoryMetricsInterceptor implements MethodInterceptor {
+
+  static final String METRIC_NAME = "spring.data.repository.invocations";
+
+  private final ObjectProvider<MeterRegistry> meterRegistry;
+  private final String repository;
+  private final ConcurrentMap<Method, Timer[]> timersByMethod = new ConcurrentHashMap<>();
+
+  RepositoryMetricsInterceptor(ObjectProvider<MeterRegistry> meterRegistry, String repository) {
+    this.meterRegistry = meterRegistry;
+    this.repository = repository;
+  }
+
+  @Override
+  public Object invoke(MethodInvocation invocation) throws Throwable {
+    Object result = invocation.proceed();
+    if (result instanceof Mono)
+      return Mono.defer(() -> {
+        long start = System.nanoTime();
+        return ((Mono<?>) result).doFinally(signal -> record(invocation.getMethod(), signal, start));
+      });
+    if (result instanceof Flux)
+      return Flux.defer(() -> {
+        long start = System.nanoTime();
+        return ((Flux<?>) result).doFinally(signal -> record(invocation.getMethod(), signal, start));
+      });
+    return result;
+  }
+
+  private void record(Method method, SignalType signal, long start) {
+    Timer[] timers = timersByMethod.computeIfAbsent(method, this::timers);
+    Timer timer = signal == SignalType.ON_COMPLETE ? timers[0] : signal == SignalType.ON_ERROR ? timers[1] : timers[2];
+    timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+  }
+
+  private Timer[] timers(Method method) {
+    MeterRegistry registry = meterRegistry.getObject();
+    return new Timer[]{timer(registry, method, "SUCCESS"), timer(registry, method, "ERROR"), timer(registry, method, "CANCELED")};
+  }
+
+  private Timer timer(MeterRegistry registry, Method method, String state) {
+    return Timer.builder(METRIC_NAME)
+        .description("Duration of repository invocations")
+        .tag("repository", repository)
+        .tag("method", method.getName())
+        .tag("state", state)
+        .register(registry);
+  }
+}
@@ -1,13 +1,14 @@
 package dev.springwebflux.config;
 
+import dev.springwebflux.config.properties.AuthProperties;
+import dev.springwebflux.security.CachingReactiveAuthenticationManager;
 import dev.springwebflux.service.impl.UserLoginServiceImpl;
 import org.springframework.context.annotation.Bean;
 import org.springframework.http.HttpMethod;
-import org.springframework.security.authentication.ReactiveAuthenticationManager;
-import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
 import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
 import org.springframework.security.web.server.SecurityWebFilterChain;
 
 @EnableWebFluxSecurity
@@ -34,8 +35,9 @@ public class SecurityConfig {
   }
 
   @Bean
-  ReactiveAuthenticationManager authenticationManager(UserLoginServiceImpl userService) {
-    return new UserDetailsRepositoryReactiveAuthenticationManager(userService);
+  CachingReactiveAuthenticationManager authenticationManager(UserLoginServiceImpl userService, AuthProperties authProperties) {
+    return new CachingReactiveAuthenticationManager(userService,
+        PasswordEncoderFactories.createDelegatingPasswordEncoder(), authProperties);
   }
 
 }
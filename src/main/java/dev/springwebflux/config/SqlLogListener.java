@@ -0,0 +1,84 @@
+package dev.springwebflux.config;
+
+import dev.springwebflux.config.properties.SqlLogProperties;
+import io.r2dbc.proxy.core.Binding;
+import io.r2dbc.proxy.core.Bindings;
+import io.r2dbc.proxy.core.BoundValue;
+import io.r2dbc.proxy.core.QueryExecutionInfo;
+import io.r2dbc.proxy.core.QueryInfo;
+import io.r2dbc.proxy.listener.ProxyExecutionListener;
+import java.util.Collection;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Logs statements that ran longer than {@code app.sql-log.slow-threshold} at WARN and a random one
+ * in {@code app.sql-log.sample-rate} of the others at INFO, on the {@code dev.springwebflux.sql}
+ * logger. The message is only built for statements that get logged.
+ */
+@Slf4j(topic = "dev.springwebflux.sql")
+class SqlLogListener implements ProxyExecutionListener {
+
+  private final long slowThresholdNanos;
+  private final int sampleRate;
+  private final boolean redactBindValues;
+  private final int maxQueryLength;
+
+  SqlLogListener(SqlLogProperties properties) {
+    this.slowThresholdNanos = properties.getSlowThreshold().toNanos();
+    this.sampleRate = properties.getSampleRate();
+    this.redactBindValues = properties.isRedactBindValues();
+    this.maxQueryLength = properties.getMaxQueryLength();
+  }
+
+  @Override
+  public void afterQuery(QueryExecutionInfo execInfo) {
+    long elapsedNanos = execInfo.getExecuteDuration().toNanos();
+    if (elapsedNanos >= slowThresholdNanos) {
+      if (log.isWarnEnabled())
+        log.warn("Slow query: {}", format(execInfo));
+    } else if (sampled() && log.isInfoEnabled()) {
+      log.info("Sampled query: {}", format(execInfo));
+    }
+  }
+
+  private boolean sampled() {
+    return sampleRate == 1 || sampleRate > 1 && ThreadLocalRandom.current().nextInt(sampleRate) == 0;
+  }
+
+  String format(QueryExecutionInfo execInfo) {
+    StringBuilder message = new StringBuilder(256)
+        .append(execInfo.getExecuteDuration().toMillis()).append(" ms")
+        .append(execInfo.isSuccess() ? "" : " failed: " + execInfo.getThrowable());
+    for (QueryInfo query : execInfo.getQueries()) {
+      message.append(" | ").append(truncate(query.getQuery()));
+      for (Bindings bindings : query.getBindingsList()) {
+        message.append(" [");
+        appendBindings(message, bindings.getIndexBindings());
+        appendBindings(message, bindings.getNamedBindings());
+        message.append(']');
+      }
+    }
+    return message.toString();
+  }
+
+  private void appendBindings(StringBuilder message, Collection<Binding> bindings) {
+    for (Binding binding : bindings) {
+      if (message.charAt(message.length() - 1) != '[')
+        message.append(", ");
+      message.append(binding.getKey()).append('=').append(render(binding.getBoundValue()));
+    }
+  }
+
+  private String render(BoundValue value) {
+    if (value.isNull())
+      return "null";
+    if (redactBindValues)
+      return "<" + value.getValue().getClass().getSimpleName() + ">";
+    return String.valueOf(value.getValue());
+  }
+
+  private String truncate(String query) {
+    return query.length() <= maxQueryLength ? query : query.substring(0, maxQueryLength) + "...";
+  }
+}
@@ -0,0 +1,52 @@
+package dev.springwebflux.config.properties;
+
+import java.time.Duration;
+import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.annotation.Validated;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "app.anime")
+public class AnimeProperties {
+
+  @Valid
+  private final Batch batch = new Batch();
+  private final Cache cache = new Cache();
+  private final JsonCache jsonCache = new JsonCache();
+
+  @Data
+  public static class Batch {
+
+    /**
+     * Rows per multi-row INSERT. PostgreSQL accepts at most 32767 bind parameters per statement.
+     */
+    @Min(1)
+    @Max(32_767)
+    private int chunkSize = 1_000;
+  }
+
+  @Data
+  public static class Cache {
+
+    private boolean enabled = true;
+    private long maximumSize = 10_000;
+    private Duration ttl = Duration.ofMinutes(1);
+    private Duration negativeTtl = Duration.ofSeconds(5);
+  }
+
+  @Data
+  public static class JsonCache {
+
+    private boolean enabled = true;
+
+    /**
+     * Total size of the cached JSON documents, held off heap.
+     */
+    private DataSize maximumWeight = DataSize.ofMegabytes(16);
+  }
+}
@@ -0,0 +1,35 @@
+package dev.springwebflux.config.properties;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.security")
+public class AuthProperties {
+
+  private final UserCache userCache = new UserCache();
+  private final CredentialCache credentialCache = new CredentialCache();
+  private final PasswordScheduler passwordScheduler = new PasswordScheduler();
+
+  @Data
+  public static class UserCache {
+
+    private long maximumSize = 10_000;
+    private Duration ttl = Duration.ofMinutes(5);
+  }
+
+  @Data
+  public static class CredentialCache {
+
+    private long maximumSize = 10_000;
+    private Duration ttl = Duration.ofMinutes(1);
+  }
+
+  @Data
+  public static class PasswordScheduler {
+
+    private int threadCap = Runtime.getRuntime().availableProcessors();
+    private int queuedTaskCap = 1_000;
+  }
+}
@@ -0,0 +1,51 @@
+package dev.springwebflux.config.properties;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+import reactor.netty.resources.LoopResources;
+
+@Data
+@ConfigurationProperties(prefix = "app.netty")
+public class NettyProperties {
+
+  /**
+   * Threads accepting connections, they hand every accepted channel to a worker.
+   */
+  private int selectorCount = 1;
+
+  /**
+   * Threads doing all channel I/O and everything the request pipelines run without a scheduler.
+   */
+  private int workerCount = LoopResources.DEFAULT_IO_WORKER_COUNT;
+
+  /**
+   * Uses epoll when its native library loads, NIO otherwise.
+   */
+  private boolean nativeTransport = true;
+
+  /**
+   * Pooled buffers, direct wherever Netty can release them without the garbage collector. Unpooled
+   * buffers when false.
+   */
+  private boolean pooledAllocator = true;
+
+  /**
+   * Connections with no bytes read or written for this long are closed. Zero keeps them open.
+   */
+  private Duration idleTimeout = Duration.ofSeconds(60);
+
+  private DataSize maxInitialLineLength = DataSize.ofKilobytes(4);
+
+  /**
+   * Takes over from {@code server.max-http-header-size}.
+   */
+  private DataSize maxHeaderSize = DataSize.ofKilobytes(8);
+
+  /**
+   * Larger request bodies are refused with 413. Streamed NDJSON bodies are never held in memory
+   * and are not limited.
+   */
+  private DataSize maxBodySize = DataSize.ofMegabytes(1);
+}
@@ -0,0 +1,23 @@
+package dev.springwebflux.config.properties;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Pool settings Spring Boot does not bind itself. Sizing, idle time and the validation query stay
+ * under {@code spring.r2dbc.pool}.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.r2dbc.pool")
+public class R2dbcPoolProperties {
+
+  private Duration maxAcquireTime = Duration.ofSeconds(5);
+  private Duration maxCreateConnectionTime = Duration.ofSeconds(10);
+  private Duration maxLifeTime = Duration.ofMinutes(30);
+
+  /**
+   * Opens {@code spring.r2dbc.pool.initial-size} connections before the application reports ready.
+   */
+  private boolean warmUp = true;
+}
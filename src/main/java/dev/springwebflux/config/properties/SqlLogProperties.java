@@ -0,0 +1,29 @@
+package dev.springwebflux.config.properties;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.sql-log")
+public class SqlLogProperties {
+
+  private boolean enabled = true;
+
+  /**
+   * Statements running at least this long are always logged.
+   */
+  private Duration slowThreshold = Duration.ofMillis(500);
+
+  /**
+   * Logs one in this many of the remaining statements, 1 logs every statement and 0 none.
+   */
+  private int sampleRate = 1_000;
+
+  /**
+   * Bind values are replaced by their type unless this is turned off.
+   */
+  private boolean redactBindValues = true;
+
+  private int maxQueryLength = 2_000;
+}
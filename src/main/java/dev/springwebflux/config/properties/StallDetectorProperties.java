@@ -0,0 +1,22 @@
+package dev.springwebflux.config.properties;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.stall-detector")
+public class StallDetectorProperties {
+
+  private boolean enabled = true;
+
+  /**
+   * How often each event loop is probed. Also the resolution of the reported delays.
+   */
+  private Duration interval = Duration.ofMillis(100);
+
+  /**
+   * A probe waiting longer than this counts as a stall and gets the thread's stack trace logged.
+   */
+  private Duration threshold = Duration.ofMillis(250);
+}
@@ -1,25 +1,39 @@
 package dev.springwebflux.controller;
 
+import dev.springwebflux.config.CodecConfig;
 import dev.springwebflux.domain.Anime;
+import dev.springwebflux.domain.AnimeImportProgress;
+import dev.springwebflux.domain.AnimeSuggestion;
+import dev.springwebflux.exception.StacklessResponseStatusException;
 import dev.springwebflux.service.AnimeService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.enums.SecuritySchemeType;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.security.SecurityScheme;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import javax.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -32,21 +46,66 @@ import reactor.core.publisher.Mono;
     scheme = "basic"
 )
 public class AnimeController {
+  private static final int DEFAULT_PAGE_SIZE = 50;
+  private static final String DEFAULT_SEARCH_LIMIT = "20";
+  private static final String DEFAULT_SUGGESTION_LIMIT = "10";
+  private static final List<MediaType> STREAMING_MEDIA_TYPES =
+      List.of(CodecConfig.APPLICATION_NDJSON, MediaType.APPLICATION_STREAM_JSON, MediaType.TEXT_EVENT_STREAM);
+
   private final AnimeService animeService;
 
   @GetMapping
-  @ResponseStatus(HttpStatus.OK)
   @PreAuthorize("hasRole('ADMIN')")
-  @Operation(summary = "List all animes", tags = {"anime"}, security = @SecurityRequirement(name = "Basic Authentication"))
-  public Flux<Anime> listAll() {
-    return animeService.findAll();
+  @Operation(summary = "List animes page by page, or stream them as NDJSON / server-sent events", tags = {"anime"}, security = @SecurityRequirement(name = "Basic Authentication"))
+  public Mono<ResponseEntity<Flux<Anime>>> listAll(@RequestParam(required = false) String cursor,
+                                                   @RequestParam(required = false) Integer limit,
+                                                   ServerWebExchange exchange) {
+    if (limit != null && limit < 1)
+      return Mono.error(new StacklessResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid limit"));
+
+    Optional<MediaType> streamingMediaType = streamingMediaType(exchange);
+    if (streamingMediaType.isPresent())
+      return Mono.fromCallable(() -> AnimeCursor.decode(cursor))
+          .map(after -> ResponseEntity.ok()
+              .contentType(streamingMediaType.get())
+              .body(stream(after, limit)));
+
+    int pageSize = Math.min(limit == null ? DEFAULT_PAGE_SIZE : limit, AnimeService.MAX_PAGE_SIZE);
+    return Mono.fromCallable(() -> AnimeCursor.decode(cursor))
+        .flatMap(after -> animeService.findCatalogVersion()
+            .map(version -> AnimeETags.of(version, cursor, pageSize))
+            .flatMap(etag -> exchange.checkNotModified(etag)
+                ? Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).<Flux<Anime>>build())
+                : findPage(after, pageSize, etag)));
   }
 
-  @GetMapping(path = "{id}")
+  @GetMapping(path = "search")
   @ResponseStatus(HttpStatus.OK)
+  @Operation(summary = "Search animes by name prefix or similarity", tags = {"anime"}, security = @SecurityRequirement(name = "Basic Authentication"))
+  public Flux<Anime> search(@RequestParam String q,
+                            @RequestParam(defaultValue = DEFAULT_SEARCH_LIMIT) int limit) {
+    if (!StringUtils.hasText(q) || limit < 1)
+      return Flux.error(new StacklessResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid search"));
+    return animeService.search(q, limit);
+  }
+
+  @GetMapping(path = "suggest")
+  @ResponseStatus(HttpStatus.OK)
+  @Operation(summary = "Suggest anime names starting with a prefix", tags = {"anime"}, security = @SecurityRequirement(name = "Basic Authentication"))
+  public Flux<AnimeSuggestion> suggest(@RequestParam String prefix,
+                                       @RequestParam(defaultValue = DEFAULT_SUGGESTION_LIMIT) int limit) {
+    if (!StringUtils.hasText(prefix) || limit < 1)
+      return Flux.error(new StacklessResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid prefix"));
+    return animeService.suggest(prefix, limit);
+  }
+
+  @GetMapping(path = "{id}")
   @Operation(summary = "Find a anime by id", tags = {"anime"}, security = @SecurityRequirement(name = "Basic Authentication"))
-  public Mono<Anime> findById(@PathVariable Integer id) {
-    return animeService.findById(id);
+  public Mono<ResponseEntity<Anime>> findById(@PathVariable Integer id) {
+    return animeService.findById(id)
+        .map(anime -> ResponseEntity.ok()
+            .eTag(AnimeETags.of(anime))
+            .body(anime));
   }
 
   @PostMapping
@@ -63,11 +122,21 @@ public class AnimeController {
     return animeService.saveAll(animes);
   }
 
+  @PostMapping(path = "import", consumes = {CodecConfig.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_STREAM_JSON_VALUE}, produces = CodecConfig.APPLICATION_NDJSON_VALUE)
+  @ResponseStatus(HttpStatus.OK)
+  @Operation(summary = "Import an unbounded NDJSON stream of animes chunk by chunk", tags = {"anime"}, security = @SecurityRequirement(name = "Basic Authentication"))
+  public Flux<AnimeImportProgress> importBatch(@RequestBody Flux<Anime> animes) {
+    return animeService.importAll(animes);
+  }
+
   @PutMapping(path = "{id}")
   @ResponseStatus(HttpStatus.NO_CONTENT)
   @Operation(summary = "Update a anime", tags = {"anime"}, security = @SecurityRequirement(name = "Basic Authentication"))
-  public Mono<Void> update(@Valid @PathVariable int id, @RequestBody Anime anime) {
-    return animeService.update(anime.withId(id));
+  public Mono<Void> update(@Valid @PathVariable int id, @RequestBody Anime anime,
+                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    return Mono.fromCallable(() -> AnimeETags.versionOf(ifMatch, id))
+        .map(version -> version.map(anime::withVersion).orElse(anime))
+        .flatMap(versionedAnime -> animeService.update(versionedAnime.withId(id)));
   }
 
   @DeleteMapping(path = "{id}")
@@ -76,4 +145,50 @@ public class AnimeController {
   public Mono<Void> delete(@PathVariable int id) {
     return animeService.delete(id);
   }
+
+  private Mono<ResponseEntity<Flux<Anime>>> findPage(int after, int pageSize, String etag) {
+    return animeService.findAll(after, pageSize)
+        .collectList()
+        .map(animes -> ResponseEntity.ok()
+            .eTag(etag)
+            .headers(nextPageHeaders(animes, pageSize))
+            .body(Flux.fromIterable(animes)));
+  }
+
+  /**
+   * Streams are unbounded unless the client asks for a limit, in which case the query is cancelled
+   * once that many anime went out.
+   */
+  private Flux<Anime> stream(int after, Integer limit) {
+    Flux<Anime> animes = animeService.streamAll(after);
+    return limit == null ? animes : animes.take(limit);
+  }
+
+  private Optional<MediaType> streamingMediaType(ServerWebExchange exchange) {
+    List<MediaType> acceptedMediaTypes;
+    try {
+      acceptedMediaTypes = new ArrayList<>(exchange.getRequest().getHeaders().getAccept());
+    } catch (InvalidMediaTypeException e) {
+      return Optional.empty();
+    }
+    MediaType.sortBySpecificityAndQuality(acceptedMediaTypes);
+    for (MediaType acceptedMediaType : acceptedMediaTypes) {
+      for (MediaType streamingMediaType : STREAMING_MEDIA_TYPES) {
+        if (streamingMediaType.equalsTypeAndSubtype(acceptedMediaType))
+          return Optional.of(streamingMediaType);
+      }
+      if (acceptedMediaType.includes(MediaType.APPLICATION_JSON))
+        return Optional.empty();
+    }
+    return Optional.empty();
+  }
+
+  private HttpHeaders nextPageHeaders(List<Anime> animes, int pageSize) {
+    HttpHeaders headers = new HttpHeaders();
+    if (animes.size() == pageSize) {
+      String cursor = AnimeCursor.encode(animes.get(animes.size() - 1).getId());
+      headers.add(HttpHeaders.LINK, String.format("</animes?cursor=%s&limit=%d>; rel=\"next\"", cursor, pageSize));
+    }
+    return headers;
+  }
 }
@@ -0,0 +1,37 @@
+package dev.springwebflux.controller;
+
+import dev.springwebflux.exception.StacklessResponseStatusException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Opaque continuation token for keyset pagination over {@code anime.id}. Clients must treat the
+ * value as a black box; only this class knows it wraps the last id of the previous page.
+ */
+final class AnimeCursor {
+
+  private static final String PREFIX = "anime:";
+  private static final int FIRST_PAGE = 0;
+
+  private AnimeCursor() {
+  }
+
+  static String encode(int lastId) {
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString((PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+  }
+
+  static int decode(String cursor) {
+    if (cursor == null || cursor.isEmpty())
+      return FIRST_PAGE;
+    try {
+      String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      if (decoded.startsWith(PREFIX))
+        return Integer.parseInt(decoded.substring(PREFIX.length()));
+    } catch (IllegalArgumentException e) {
+      // falls through to the bad request below; NumberFormatException is an IllegalArgumentException
+    }
+    throw new StacklessResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+  }
+}
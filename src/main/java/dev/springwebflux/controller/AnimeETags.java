@@ -0,0 +1,58 @@
+package dev.springwebflux.controller;
+
+import dev.springwebflux.domain.Anime;
+import dev.springwebflux.domain.AnimeCatalogVersion;
+import dev.springwebflux.exception.StacklessResponseStatusException;
+import java.util.Optional;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Weak entity tags for anime resources. Single anime are tagged by id and version, which is also
+ * what {@code If-Match} is checked against; listings are tagged by the row count and highest row
+ * version of the table plus the requested page, so a write to the table invalidates every cached
+ * page.
+ */
+final class AnimeETags {
+
+  private AnimeETags() {
+  }
+
+  private static final String WEAK_PREFIX = "W/";
+  private static final String ANY = "*";
+
+  static String of(Anime anime) {
+    return weak(anime.getId() + "-" + (anime.getVersion() == null ? 0 : anime.getVersion()));
+  }
+
+  /**
+   * Version an {@code If-Match} header asks the update of anime {@code id} to be applied to, or
+   * empty for {@code *} or no header at all.
+   */
+  static Optional<Long> versionOf(String ifMatch, int id) {
+    if (ifMatch == null || ANY.equals(ifMatch.trim()))
+      return Optional.empty();
+
+    String tag = ifMatch.trim();
+    if (tag.startsWith(WEAK_PREFIX))
+      tag = tag.substring(WEAK_PREFIX.length());
+    String idPrefix = "\"" + id + "-";
+    if (!tag.startsWith(idPrefix) || !tag.endsWith("\""))
+      throw new StacklessResponseStatusException(HttpStatus.PRECONDITION_FAILED, "If-Match does not identify anime " + id);
+    try {
+      return Optional.of(Long.parseLong(tag.substring(idPrefix.length(), tag.length() - 1)));
+    } catch (NumberFormatException e) {
+      throw new StacklessResponseStatusException(HttpStatus.PRECONDITION_FAILED, "If-Match does not identify anime " + id);
+    }
+  }
+
+  static String of(AnimeCatalogVersion version, String cursor, int limit) {
+    return weak(version.getRowCount()
+        + "." + version.getMaxVersion()
+        + "-" + (cursor == null ? "" : cursor)
+        + "-" + limit);
+  }
+
+  private static String weak(String value) {
+    return "W/\"" + value + "\"";
+  }
+}
@@ -1,5 +1,7 @@
 package dev.springwebflux.domain;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.time.LocalDateTime;
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -8,12 +10,13 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.With;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.relational.core.mapping.Table;
 
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 @With
 @Table("anime")
 public class Anime {
@@ -25,4 +28,11 @@ public class Anime {
   @NotEmpty(message = "The name of this anime cannot be empty")
   private String name;
 
+  @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+  private LocalDateTime updatedAt;
+
+  @Version
+  @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+  private Long version;
+
 }
@@ -0,0 +1,24 @@
+package dev.springwebflux.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Stamp of the whole {@code anime} table: its row count and highest row version. Every insert and
+ * update draws a new version from {@code anime_version_seq}, so the maximum grows, and a delete
+ * lowers the count. Both are read from indexes without any row that every writer has to lock.
+ *
+ * <p>A write that drew its version before another one but commits after it does not move the
+ * maximum, so a listing can keep its old tag until the next write. The listing tags built from this
+ * are weak for that reason.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AnimeCatalogVersion {
+
+  private long rowCount;
+  private long maxVersion;
+
+}
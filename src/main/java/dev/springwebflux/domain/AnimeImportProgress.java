@@ -0,0 +1,16 @@
+package dev.springwebflux.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AnimeImportProgress {
+
+  private long chunk;
+  private long inserted;
+  private long totalInserted;
+
+}
@@ -0,0 +1,15 @@
+package dev.springwebflux.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AnimeSuggestion {
+
+  private Integer id;
+  private String name;
+
+}
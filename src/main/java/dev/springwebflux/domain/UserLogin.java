@@ -1,23 +1,34 @@
 package dev.springwebflux.domain;
 
-import java.util.Arrays;
 import java.util.Collection;
-import java.util.stream.Collectors;
-import lombok.AllArgsConstructor;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.PersistenceConstructor;
+import org.springframework.data.annotation.Transient;
 import org.springframework.data.relational.core.mapping.Table;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 @Data
-@AllArgsConstructor
 @NoArgsConstructor
 @Table("user_login")
 public class UserLogin implements UserDetails {
 
+  private static final Map<String, GrantedAuthority> AUTHORITIES_BY_NAME = new ConcurrentHashMap<>();
+  private static final Map<String, Set<GrantedAuthority>> AUTHORITY_SETS_BY_COLUMN = new ConcurrentHashMap<>();
+
   @Id
   private Integer id;
   private String name;
@@ -25,11 +36,30 @@ public class UserLogin implements UserDetails {
   private String password;
   private String authorities;
 
+  @Transient
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  private Set<GrantedAuthority> grantedAuthorities = Collections.emptySet();
+
+  @PersistenceConstructor
+  public UserLogin(Integer id, String name, String username, String password, String authorities) {
+    this.id = id;
+    this.name = name;
+    this.username = username;
+    this.password = password;
+    setAuthorities(authorities);
+  }
+
+  public void setAuthorities(String authorities) {
+    this.authorities = authorities;
+    this.grantedAuthorities = parseAuthorities(authorities);
+  }
+
   @Override
   public Collection<? extends GrantedAuthority> getAuthorities() {
-    return Arrays.stream(authorities.split(","))
-        .map(SimpleGrantedAuthority::new)
-        .collect(Collectors.toList());
+    return grantedAuthorities;
   }
 
   @Override
@@ -51,4 +81,18 @@ public class UserLogin implements UserDetails {
   public boolean isEnabled() {
     return true;
   }
+
+  private static Set<GrantedAuthority> parseAuthorities(String authorities) {
+    if (authorities == null || authorities.isBlank())
+      return Collections.emptySet();
+    return AUTHORITY_SETS_BY_COLUMN.computeIfAbsent(authorities, column -> {
+      Set<GrantedAuthority> parsed = new LinkedHashSet<>();
+      for (String authority : column.split(",")) {
+        String trimmed = authority.trim();
+        if (!trimmed.isEmpty())
+          parsed.add(AUTHORITIES_BY_NAME.computeIfAbsent(trimmed, SimpleGrantedAuthority::new));
+      }
+      return Collections.unmodifiableSet(parsed);
+    });
+  }
 }
@@ -0,0 +1,28 @@
+package dev.springwebflux.exception;
+
+import java.util.List;
+import lombok.Getter;
+import lombok.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+@Getter
+public class BatchValidationException extends ResponseStatusException {
+
+  private final List<InvalidItem> errors;
+  private final int errorCount;
+
+  public BatchValidationException(List<InvalidItem> errors, int errorCount) {
+    super(HttpStatus.BAD_REQUEST, "Invalid batch: " + errorCount + " invalid item(s)");
+    this.errors = errors;
+    this.errorCount = errorCount;
+  }
+
+  @Value
+  public static class InvalidItem {
+
+    long index;
+    String field;
+    String message;
+  }
+}
@@ -4,6 +4,8 @@ import java.util.Map;
 
 import org.springframework.boot.web.error.ErrorAttributeOptions;
 import org.springframework.boot.web.reactive.error.DefaultErrorAttributes;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.server.ResponseStatusException;
@@ -20,6 +22,17 @@ public class CustomAttributes extends DefaultErrorAttributes {
       errorAttributesMap.put("message", ex.getMessage());
       errorAttributesMap.put("developerMessage", "A ResponseStatusException happened");
     }
+    if(throwable instanceof OptimisticLockingFailureException) {
+      errorAttributesMap.put("status", HttpStatus.CONFLICT.value());
+      errorAttributesMap.put("error", HttpStatus.CONFLICT.getReasonPhrase());
+      errorAttributesMap.put("message", throwable.getMessage());
+      errorAttributesMap.put("developerMessage", "An OptimisticLockingFailureException happened");
+    }
+    if(throwable instanceof BatchValidationException) {
+      BatchValidationException ex = (BatchValidationException) throwable;
+      errorAttributesMap.put("errorCount", ex.getErrorCount());
+      errorAttributesMap.put("errors", ex.getErrors());
+    }
     return errorAttributesMap;
   }
 
@@ -13,6 +13,7 @@ import org.springframework.boot.web.reactive.error.ErrorAttributes;
 import org.springframework.context.ApplicationContext;
 import org.springframework.core.PriorityOrdered;
 import org.springframework.core.annotation.Order;
+import org.springframework.core.io.buffer.DataBufferFactory;
 import org.springframework.http.MediaType;
 import org.springframework.http.codec.ServerCodecConfigurer;
 import org.springframework.stereotype.Component;
@@ -23,17 +24,22 @@ import org.springframework.web.reactive.function.server.RouterFunction;
 import org.springframework.web.reactive.function.server.RouterFunctions;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Mono;
 
 @Component
 @Order(PriorityOrdered.HIGHEST_PRECEDENCE)
 public class GlobalExceptionHandler extends AbstractErrorWebExceptionHandler {
 
+  private final ErrorAttributes errorAttributes;
+  private final PreSerializedErrorBodies preSerializedErrorBodies = new PreSerializedErrorBodies();
+
   public GlobalExceptionHandler(ErrorAttributes errorAttributes,
                                 ResourceProperties resourceProperties,
                                 ApplicationContext applicationContext,
                                 ServerCodecConfigurer serverCodecConfigurer) {
     super(errorAttributes, resourceProperties, applicationContext);
+    this.errorAttributes = errorAttributes;
     this.setMessageWriters(serverCodecConfigurer.getWriters());
   }
 
@@ -44,7 +50,12 @@ public class GlobalExceptionHandler extends AbstractErrorWebExceptionHandler {
 
   private Mono<ServerResponse> formatErrorResponse(ServerRequest request) {
     String query = request.uri().getQuery();
-    ErrorAttributeOptions errorAttr = isTraceEnabled(query) ? of(Include.STACK_TRACE) : defaults();
+    boolean traceEnabled = isTraceEnabled(query);
+    Throwable error = errorAttributes.getError(request);
+    if (!traceEnabled && PreSerializedErrorBodies.supports(error))
+      return preSerializedErrorResponse(request, (ResponseStatusException) error);
+
+    ErrorAttributeOptions errorAttr = traceEnabled ? of(Include.STACK_TRACE) : defaults();
 
     Map<String, Object> errorAttributesMap = getErrorAttributes(request, errorAttr);
     int status = (int) Optional.ofNullable(errorAttributesMap.get("status")).orElse(500);
@@ -54,6 +65,13 @@ public class GlobalExceptionHandler extends AbstractErrorWebExceptionHandler {
         .body(BodyInserters.fromValue(errorAttributesMap));
   }
 
+  private Mono<ServerResponse> preSerializedErrorResponse(ServerRequest request, ResponseStatusException error) {
+    DataBufferFactory bufferFactory = request.exchange().getResponse().bufferFactory();
+    return ServerResponse.status(error.getStatus())
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(BodyInserters.fromDataBuffers(preSerializedErrorBodies.write(request, error, bufferFactory)));
+  }
+
   private boolean isTraceEnabled(String query) {
     return !StringUtils.isEmpty(query) && query.contains("trace=true");
   }
@@ -0,0 +1,63 @@
+package dev.springwebflux.exception;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+
+/**
+ * Writes the JSON body {@link CustomAttributes} would produce for a {@link ResponseStatusException},
+ * without building the attribute map or going through Jackson. Everything but the timestamp, path
+ * and request id depends only on the exception message, so that part is encoded once per message
+ * and written from the same bytes afterwards. Messages can carry ids or user input, so only a
+ * bounded number of them is kept, favouring the ones seen most often. Keep the fields in sync with
+ * {@link CustomAttributes}.
+ */
+class PreSerializedErrorBodies {
+
+  private static final int MAX_CACHED_BODIES = 256;
+  // the format Jackson gives the java.util.Date DefaultErrorAttributes puts in "timestamp"
+  private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSxxx")
+      .withZone(ZoneOffset.UTC);
+  private static final byte[] TAIL = "\",\"developerMessage\":\"A ResponseStatusException happened\"}"
+      .getBytes(StandardCharsets.UTF_8);
+
+  private final Cache<String, byte[]> statusAndMessageByMessage = Caffeine.newBuilder()
+      .maximumSize(MAX_CACHED_BODIES)
+      .build();
+
+  static boolean supports(Throwable error) {
+    // BatchValidationException adds the invalid items, which only the attribute map knows about
+    return error instanceof ResponseStatusException && !(error instanceof BatchValidationException);
+  }
+
+  Flux<DataBuffer> write(ServerRequest request, ResponseStatusException error, DataBufferFactory bufferFactory) {
+    String head = "{\"timestamp\":\"" + TIMESTAMP.format(Instant.now())
+        + "\",\"path\":\"" + quote(request.path()) + "\",";
+    return Flux.just(
+        bufferFactory.wrap(head.getBytes(StandardCharsets.UTF_8)),
+        bufferFactory.wrap(statusAndMessage(error)),
+        bufferFactory.wrap(quote(request.exchange().getRequest().getId()).getBytes(StandardCharsets.UTF_8)),
+        bufferFactory.wrap(TAIL));
+  }
+
+  private byte[] statusAndMessage(ResponseStatusException error) {
+    // the message starts with the status code, so it identifies the whole encoded part
+    return statusAndMessageByMessage.get(error.getMessage(), message -> ("\"status\":" + error.getStatus().value()
+        + ",\"error\":\"" + quote(error.getStatus().getReasonPhrase())
+        + "\",\"message\":\"" + quote(message)
+        + "\",\"requestId\":\"").getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String quote(String value) {
+    return new String(JsonStringEncoder.getInstance().quoteAsString(value));
+  }
+}
@@ -0,0 +1,22 @@
+package dev.springwebflux.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * {@link ResponseStatusException} for errors raised on purpose, like a missing anime or an invalid
+ * parameter. Walking the stack is most of what creating an exception costs, and for these errors
+ * the trace only ever points at the line that threw. Not shared between requests, since Reactor
+ * attaches suppressed exceptions to the errors it propagates.
+ */
+public class StacklessResponseStatusException extends ResponseStatusException {
+
+  public StacklessResponseStatusException(HttpStatus status, String reason) {
+    super(status, reason);
+  }
+
+  @Override
+  public synchronized Throwable fillInStackTrace() {
+    return this;
+  }
+}
@@ -0,0 +1,10 @@
+package dev.springwebflux.repository;
+
+import dev.springwebflux.domain.Anime;
+import java.util.List;
+import reactor.core.publisher.Flux;
+
+public interface AnimeBatchRepository {
+
+  Flux<Anime> insertAll(List<Anime> animes);
+}
@@ -1,8 +1,27 @@
 package dev.springwebflux.repository;
 
 import dev.springwebflux.domain.Anime;
+import dev.springwebflux.domain.AnimeCatalogVersion;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-public interface AnimeRepository extends ReactiveCrudRepository<Anime, Integer> {
+public interface AnimeRepository extends ReactiveCrudRepository<Anime, Integer>, AnimeBatchRepository, AnimeStreamRepository,
+    AnimeUpdateRepository {
 
+  @Query("SELECT * FROM anime WHERE id > :after ORDER BY id LIMIT :limit")
+  Flux<Anime> findPageAfter(int after, int limit);
+
+  @Query("SELECT * FROM anime WHERE lower(name) LIKE :prefix OR name % :query"
+      + " ORDER BY lower(name) LIKE :prefix DESC, similarity(name, :query) DESC, id LIMIT :limit")
+  Flux<Anime> searchByName(String prefix, String query, int limit);
+
+  @Query("SELECT count(*) AS row_count, coalesce(max(version), 0) AS max_version FROM anime")
+  Mono<AnimeCatalogVersion> findCatalogVersion();
+
+  @Modifying
+  @Query("DELETE FROM anime WHERE id = :id")
+  Mono<Integer> deleteAnimeById(int id);
 }
@@ -0,0 +1,9 @@
+package dev.springwebflux.repository;
+
+import dev.springwebflux.domain.Anime;
+import reactor.core.publisher.Flux;
+
+public interface AnimeStreamRepository {
+
+  Flux<Anime> findAllAfter(int after, int fetchSize);
+}
@@ -0,0 +1,27 @@
+package dev.springwebflux.repository;
+
+import dev.springwebflux.domain.Anime;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+
+/**
+ * Reads every anime after a cursor with a fetch size on the statement, so the driver pulls rows
+ * from the server {@code fetchSize} at a time instead of taking the whole result set at once. A
+ * derived {@code @Query} method has no way to set it.
+ */
+@RequiredArgsConstructor
+public class AnimeStreamRepositoryImpl implements AnimeStreamRepository {
+
+  private final DatabaseClient databaseClient;
+
+  @Override
+  public Flux<Anime> findAllAfter(int after, int fetchSize) {
+    return databaseClient.execute("SELECT * FROM anime WHERE id > :after ORDER BY id")
+        .bind("after", after)
+        .filter(statement -> statement.fetchSize(fetchSize))
+        .as(Anime.class)
+        .fetch()
+        .all();
+  }
+}
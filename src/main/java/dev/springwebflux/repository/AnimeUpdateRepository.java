@@ -0,0 +1,17 @@
+package dev.springwebflux.repository;
+
+import reactor.core.publisher.Mono;
+
+public interface AnimeUpdateRepository {
+
+  /**
+   * Renames anime {@code id}, emitting the row version the update gave it, or nothing when there
+   * is no such anime.
+   */
+  Mono<Long> updateName(int id, String name);
+
+  /**
+   * Like {@link #updateName(int, String)}, but only while the row is still at {@code version}.
+   */
+  Mono<Long> updateNameIfVersion(int id, String name, long version);
+}
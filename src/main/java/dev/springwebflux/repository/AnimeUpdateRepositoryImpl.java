@@ -0,0 +1,40 @@
+package dev.springwebflux.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import org.springframework.data.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import reactor.core.publisher.Mono;
+
+/**
+ * Single statement renames that hand back the new row version in the same round trip, through
+ * {@code Statement.returnGeneratedValues} like {@link AnimeBatchRepositoryImpl}. A {@code @Query}
+ * method can only report the affected row count.
+ */
+@RequiredArgsConstructor
+public class AnimeUpdateRepositoryImpl implements AnimeUpdateRepository {
+
+  private static final String UPDATE_NAME =
+      "UPDATE anime SET name = :name, updated_at = now(), version = nextval('anime_version_seq') WHERE id = :id";
+
+  private final DatabaseClient databaseClient;
+
+  @Override
+  public Mono<Long> updateName(int id, String name) {
+    return update(databaseClient.execute(UPDATE_NAME)
+        .bind("id", id), name);
+  }
+
+  @Override
+  public Mono<Long> updateNameIfVersion(int id, String name, long version) {
+    return update(databaseClient.execute(UPDATE_NAME + " AND version = :version")
+        .bind("id", id)
+        .bind("version", version), name);
+  }
+
+  private static Mono<Long> update(GenericExecuteSpec statement, String name) {
+    return (name == null ? statement.bindNull("name", String.class) : statement.bind("name", name))
+        .filter(update -> update.returnGeneratedValues("version"))
+        .map((row, metadata) -> row.get("version", Long.class))
+        .one();
+  }
+}
@@ -0,0 +1,135 @@
+package dev.springwebflux.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import dev.springwebflux.config.properties.AuthProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.authentication.AccountStatusUserDetailsChecker;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsChecker;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Username/password authentication manager that remembers successful credential checks for a
+ * short time, so a client repeating the same HTTP Basic header does not pay for a BCrypt match on
+ * every request.
+ *
+ * <p>Cache keys are an HMAC of the username and the presented password under a key generated at
+ * startup, so plain passwords are never held in memory. Each entry stores the encoded password it
+ * was verified against; once the stored hash changes the entry no longer matches. Password matches
+ * that do miss the cache run on a dedicated bounded scheduler, never on the event loop.
+ */
+public class CachingReactiveAuthenticationManager implements ReactiveAuthenticationManager, MeterBinder, DisposableBean {
+
+  private static final String HMAC_ALGORITHM = "HmacSHA256";
+  private static final int HMAC_KEY_LENGTH = 32;
+
+  private final ReactiveUserDetailsService userDetailsService;
+  private final PasswordEncoder passwordEncoder;
+  private final UserDetailsChecker userDetailsChecker = new AccountStatusUserDetailsChecker();
+  private final Cache<String, String> verifiedCredentials;
+  private final Scheduler passwordScheduler;
+  private final ThreadLocal<Mac> hmac;
+
+  public CachingReactiveAuthenticationManager(ReactiveUserDetailsService userDetailsService,
+                                              PasswordEncoder passwordEncoder,
+                                              AuthProperties authProperties) {
+    this.userDetailsService = userDetailsService;
+    this.passwordEncoder = passwordEncoder;
+    this.verifiedCredentials = Caffeine.newBuilder()
+        .maximumSize(authProperties.getCredentialCache().getMaximumSize())
+        .expireAfterWrite(authProperties.getCredentialCache().getTtl())
+        .recordStats()
+        .build();
+    this.passwordScheduler = Schedulers.newBoundedElastic(
+        authProperties.getPasswordScheduler().getThreadCap(),
+        authProperties.getPasswordScheduler().getQueuedTaskCap(),
+        "password-encoder");
+    this.hmac = hmacWithRandomKey();
+  }
+
+  @Override
+  public Mono<Authentication> authenticate(Authentication authentication) {
+    String username = authentication.getName();
+    Object credentials = authentication.getCredentials();
+    if (username == null || !(credentials instanceof String))
+      return Mono.error(new BadCredentialsException("Invalid Credentials"));
+
+    String presentedPassword = (String) credentials;
+    return userDetailsService.findByUsername(username)
+        .switchIfEmpty(Mono.error(() -> new BadCredentialsException("Invalid Credentials")))
+        .doOnNext(userDetailsChecker::check)
+        .flatMap(user -> verifyPassword(user, username, presentedPassword))
+        .map(user -> new UsernamePasswordAuthenticationToken(user, user.getPassword(), user.getAuthorities()));
+  }
+
+  public CacheStats stats() {
+    return verifiedCredentials.stats();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    CaffeineCacheMetrics.monitor(registry, verifiedCredentials, "verifiedCredentials");
+  }
+
+  @Override
+  public void destroy() {
+    passwordScheduler.dispose();
+  }
+
+  private Mono<UserDetails> verifyPassword(UserDetails user, String username, String presentedPassword) {
+    String cacheKey = credentialKey(username, presentedPassword);
+    if (user.getPassword().equals(verifiedCredentials.getIfPresent(cacheKey)))
+      return Mono.just(user);
+
+    return Mono.fromCallable(() -> passwordEncoder.matches(presentedPassword, user.getPassword()))
+        .subscribeOn(passwordScheduler)
+        .flatMap(matches -> {
+          if (!matches)
+            return Mono.error(new BadCredentialsException("Invalid Credentials"));
+          verifiedCredentials.put(cacheKey, user.getPassword());
+          return Mono.just(user);
+        });
+  }
+
+  private String credentialKey(String username, String presentedPassword) {
+    Mac mac = hmac.get();
+    mac.update(username.getBytes(StandardCharsets.UTF_8));
+    mac.update((byte) 0);
+    byte[] digest = mac.doFinal(presentedPassword.getBytes(StandardCharsets.UTF_8));
+    return Base64.getEncoder().encodeToString(digest);
+  }
+
+  private static ThreadLocal<Mac> hmacWithRandomKey() {
+    byte[] key = new byte[HMAC_KEY_LENGTH];
+    new SecureRandom().nextBytes(key);
+    SecretKeySpec keySpec = new SecretKeySpec(key, HMAC_ALGORITHM);
+    return ThreadLocal.withInitial(() -> {
+      try {
+        Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+        mac.init(keySpec);
+        return mac;
+      } catch (GeneralSecurityException e) {
+        throw new IllegalStateException("Unable to initialize " + HMAC_ALGORITHM, e);
+      }
+    });
+  }
+}
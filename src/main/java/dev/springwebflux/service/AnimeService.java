@@ -1,14 +1,31 @@
 package dev.springwebflux.service;
 
 import dev.springwebflux.domain.Anime;
+import dev.springwebflux.domain.AnimeCatalogVersion;
+import dev.springwebflux.domain.AnimeImportProgress;
+import dev.springwebflux.domain.AnimeSuggestion;
 import java.util.List;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public interface AnimeService {
 
+  int MAX_PAGE_SIZE = 500;
+  int MAX_SEARCH_RESULTS = 100;
+  int MAX_SUGGESTIONS = 50;
+
   Flux<Anime> findAll();
 
+  Flux<Anime> findAll(int after, int limit);
+
+  Flux<Anime> streamAll(int after);
+
+  Flux<Anime> search(String query, int limit);
+
+  Flux<AnimeSuggestion> suggest(String prefix, int limit);
+
+  Mono<AnimeCatalogVersion> findCatalogVersion();
+
   Mono<Anime> findById(Integer id);
 
   Mono<Anime> save(Anime anime);
@@ -18,4 +35,6 @@ public interface AnimeService {
   Mono<Void> delete(int id);
 
   Flux<Anime> saveAll(List<Anime> animes);
+
+  Flux<AnimeImportProgress> importAll(Flux<Anime> animes);
 }
@@ -0,0 +1,103 @@
+package dev.springwebflux.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import dev.springwebflux.config.properties.AnimeProperties;
+import dev.springwebflux.domain.Anime;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.util.IllegalReferenceCountException;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.stereotype.Component;
+
+/**
+ * UTF-8 JSON of recently written anime, kept in direct buffers so the same document is encoded once
+ * and then handed to Netty as retained slices. An entry is only used for an anime equal to the one
+ * it was encoded from, so a stale entry costs a re-encode, never a stale body. Writes through
+ * {@link AnimeServiceImpl} evict their ids; evicted buffers are released once the last slice
+ * still being written is.
+ */
+@Component
+public class AnimeJsonCache implements MeterBinder {
+
+  private final ObjectMapper objectMapper;
+  private final Cache<Integer, EncodedAnime> encodedAnimes;
+
+  public AnimeJsonCache(ObjectMapper objectMapper, AnimeProperties animeProperties) {
+    this.objectMapper = objectMapper;
+    this.encodedAnimes = Caffeine.newBuilder()
+        .maximumWeight(animeProperties.getJsonCache().getMaximumWeight().toBytes())
+        .<Integer, EncodedAnime>weigher((id, encoded) -> encoded.json.readableBytes())
+        // releasing is cheap, run it on the writing thread instead of the common pool
+        .executor(Runnable::run)
+        .removalListener((id, encoded, cause) -> encoded.json.release())
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * JSON of {@code anime} as a slice the caller owns and must release.
+   */
+  public ByteBuf retainedJson(Anime anime) {
+    if (anime.getId() == null)
+      return encode(anime);
+    EncodedAnime cached = encodedAnimes.getIfPresent(anime.getId());
+    if (cached != null && cached.anime.equals(anime)) {
+      try {
+        return cached.json.retainedSlice();
+      } catch (IllegalReferenceCountException e) {
+        // evicted and released since the lookup, encode it again
+      }
+    }
+    EncodedAnime encoded = new EncodedAnime(copyOf(anime), encode(anime));
+    ByteBuf slice = encoded.json.retainedSlice();
+    encodedAnimes.put(anime.getId(), encoded);
+    return slice;
+  }
+
+  public void evict(Integer id) {
+    if (id != null)
+      encodedAnimes.invalidate(id);
+  }
+
+  public CacheStats stats() {
+    return encodedAnimes.stats();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    CaffeineCacheMetrics.monitor(registry, encodedAnimes, "animeJson");
+  }
+
+  private ByteBuf encode(Anime anime) {
+    byte[] json;
+    try {
+      json = objectMapper.writeValueAsBytes(anime);
+    } catch (JsonProcessingException e) {
+      throw new EncodingException("JSON encoding error: " + e.getOriginalMessage(), e);
+    }
+    return Unpooled.directBuffer(json.length).writeBytes(json);
+  }
+
+  // Anime is mutable, the cached copy keeps the entry matching the JSON it was encoded to
+  private static Anime copyOf(Anime anime) {
+    return new Anime(anime.getId(), anime.getName(), anime.getUpdatedAt(), anime.getVersion());
+  }
+
+  private static final class EncodedAnime {
+
+    private final Anime anime;
+    private final ByteBuf json;
+
+    EncodedAnime(Anime anime, ByteBuf json) {
+      this.anime = anime;
+      this.json = json;
+    }
+  }
+}
@@ -0,0 +1,168 @@
+package dev.springwebflux.service.impl;
+
+import dev.springwebflux.domain.Anime;
+import dev.springwebflux.domain.AnimeSuggestion;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process, sorted index of anime names for type-ahead. Entries are keyed by the lower-cased name
+ * followed by the id, so a prefix lookup is a range scan over the sorted keys and never reaches the
+ * database. Writes for the same id are serialized through {@link ConcurrentMap#compute}. Display
+ * names are interned, so anime sharing a name share one String.
+ *
+ * <p>Renames reach the index after their commit but in no particular order, so every entry keeps
+ * the row version it was indexed at and a name with a lower version than the indexed one is
+ * ignored.
+ *
+ * <p>A bulk load runs while live writes are already being indexed, so rows it read before such a
+ * write would bring back a deleted id or an older name. Between {@link #startLoading()} and
+ * {@link #finishLoading()} every live write records its id, and {@link #putLoaded(Anime)} leaves
+ * recorded ids alone.
+ */
+@Component
+public class AnimeNameIndex implements MeterBinder {
+
+  private static final char ID_SEPARATOR = '\u0000';
+  // skip list node and index levels, both Strings, the suggestion, the id map node, the boxed id
+  // and the indexed name holding key and version
+  private static final long ENTRY_OVERHEAD_BYTES = 224;
+
+  private final ConcurrentNavigableMap<String, AnimeSuggestion> suggestionsByKey = new ConcurrentSkipListMap<>();
+  private final ConcurrentMap<Integer, IndexedName> namesById = new ConcurrentHashMap<>();
+  private final AtomicLong indexedChars = new AtomicLong();
+  private volatile Set<Integer> writtenWhileLoading;
+
+  public void put(Anime anime) {
+    put(anime.getId(), anime.getName(), anime.getVersion());
+  }
+
+  /**
+   * Indexes {@code name} as of row {@code version}, unless a newer version of the row is already
+   * indexed. A {@code null} version counts as the oldest.
+   */
+  public void put(Integer id, String name, Long version) {
+    if (id == null)
+      return;
+    if (name == null || name.isEmpty()) {
+      remove(id);
+      return;
+    }
+    recordWrite(id);
+    namesById.compute(id, (key, previous) -> replaceIfNotOlder(id, name, version, previous));
+  }
+
+  public void remove(Integer id) {
+    recordWrite(id);
+    namesById.computeIfPresent(id, (key, previous) -> {
+      removeEntry(previous.key);
+      return null;
+    });
+  }
+
+  public void startLoading() {
+    writtenWhileLoading = ConcurrentHashMap.newKeySet();
+  }
+
+  /**
+   * Indexes a row read by the bulk load, unless the id was written since {@link #startLoading()}.
+   */
+  public void putLoaded(Anime anime) {
+    Set<Integer> written = writtenWhileLoading;
+    Integer id = anime.getId();
+    String name = anime.getName();
+    if (id == null || name == null || name.isEmpty())
+      return;
+    namesById.compute(id, (key, previous) -> written != null && written.contains(id)
+        ? previous
+        : replaceIfNotOlder(id, name, anime.getVersion(), previous));
+  }
+
+  public void finishLoading() {
+    writtenWhileLoading = null;
+  }
+
+  public List<AnimeSuggestion> suggest(String prefix, int limit) {
+    String normalizedPrefix = normalize(prefix);
+    List<AnimeSuggestion> suggestions = new ArrayList<>(Math.min(limit, 16));
+    for (AnimeSuggestion suggestion : suggestionsByKey.subMap(normalizedPrefix, normalizedPrefix + Character.MAX_VALUE).values()) {
+      if (suggestions.size() >= limit)
+        break;
+      suggestions.add(suggestion);
+    }
+    return suggestions;
+  }
+
+  public int size() {
+    return namesById.size();
+  }
+
+  public long estimatedMemoryBytes() {
+    return size() * ENTRY_OVERHEAD_BYTES + indexedChars.get() * Character.BYTES;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("anime.suggestions.entries", this, AnimeNameIndex::size)
+        .description("Anime names held by the suggestion index")
+        .register(registry);
+    Gauge.builder("anime.suggestions.memory", this, AnimeNameIndex::estimatedMemoryBytes)
+        .description("Estimated heap used by the suggestion index")
+        .baseUnit(BaseUnits.BYTES)
+        .register(registry);
+  }
+
+  private void recordWrite(Integer id) {
+    Set<Integer> written = writtenWhileLoading;
+    if (written != null)
+      written.add(id);
+  }
+
+  private IndexedName replaceIfNotOlder(Integer id, String name, Long version, IndexedName previous) {
+    long newVersion = version == null ? Long.MIN_VALUE : version;
+    if (previous != null && previous.version > newVersion)
+      return previous;
+    if (previous != null)
+      removeEntry(previous.key);
+    String internedName = name.intern();
+    String newKey = normalize(internedName) + ID_SEPARATOR + id;
+    suggestionsByKey.put(newKey, new AnimeSuggestion(id, internedName));
+    indexedChars.addAndGet(newKey.length() + internedName.length());
+    return new IndexedName(newKey, newVersion);
+  }
+
+  private void removeEntry(String key) {
+    if (key == null)
+      return;
+    AnimeSuggestion removed = suggestionsByKey.remove(key);
+    if (removed != null)
+      indexedChars.addAndGet(-(key.length() + removed.getName().length()));
+  }
+
+  private static String normalize(String value) {
+    return value.trim().toLowerCase(Locale.ROOT);
+  }
+
+  private static final class IndexedName {
+
+    private final String key;
+    private final long version;
+
+    IndexedName(String key, long version) {
+      this.key = key;
+      this.version = version;
+    }
+  }
+}
@@ -0,0 +1,33 @@
+package dev.springwebflux.service.impl;
+
+import dev.springwebflux.repository.AnimeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AnimeNameIndexLoader {
+
+  private final AnimeRepository animeRepository;
+  private final AnimeNameIndex animeNameIndex;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void load() {
+    Flux.defer(() -> {
+          // before the scan starts, so every write it could miss is recorded
+          animeNameIndex.startLoading();
+          return animeRepository.findAll();
+        })
+        .doOnNext(animeNameIndex::putLoaded)
+        .doFinally(signal -> animeNameIndex.finishLoading())
+        .count()
+        .subscribe(
+            loaded -> log.info("Loaded {} anime names into the suggestion index (~{} bytes)", loaded, animeNameIndex.estimatedMemoryBytes()),
+            error -> log.error("Could not load the anime suggestion index", error));
+  }
+}
@@ -1,15 +1,29 @@
 package dev.springwebflux.service.impl;
 
+import dev.springwebflux.config.properties.AnimeProperties;
 import dev.springwebflux.domain.Anime;
+import dev.springwebflux.domain.AnimeCatalogVersion;
+import dev.springwebflux.domain.AnimeImportProgress;
+import dev.springwebflux.domain.AnimeSuggestion;
+import dev.springwebflux.exception.BatchValidationException;
+import dev.springwebflux.exception.BatchValidationException.InvalidItem;
+import dev.springwebflux.exception.StacklessResponseStatusException;
 import dev.springwebflux.repository.AnimeRepository;
 import dev.springwebflux.service.AnimeService;
 import io.netty.util.internal.StringUtil;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.NoTransactionException;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.server.ResponseStatusException;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -17,49 +31,189 @@ import reactor.core.publisher.Mono;
 @RequiredArgsConstructor
 public class AnimeServiceImpl implements AnimeService {
 
+  private static final int STREAM_FETCH_SIZE = 256;
+  private static final int MAX_REPORTED_BATCH_ERRORS = 100;
+
   private final AnimeRepository animeRepository;
+  private final AnimeProperties animeProperties;
+  private final AnimeNameIndex animeNameIndex;
+  private final AnimeJsonCache animeJsonCache;
+
   @Override
   public Flux<Anime> findAll() {
-    return animeRepository.findAll();
+    return animeRepository.findAll()
+        .name("anime.findAll").metrics();
+  }
+
+  @Override
+  public Flux<Anime> findAll(int after, int limit) {
+    return animeRepository.findPageAfter(after, Math.min(limit, MAX_PAGE_SIZE))
+        .name("anime.findPage").metrics();
+  }
+
+  @Override
+  public Flux<Anime> streamAll(int after) {
+    // the fetch size bounds what the driver pulls from the server, limitRate what Reactor asks for
+    return animeRepository.findAllAfter(after, STREAM_FETCH_SIZE)
+        .limitRate(STREAM_FETCH_SIZE)
+        .name("anime.streamAll").metrics();
+  }
+
+  @Override
+  public Flux<Anime> search(String query, int limit) {
+    String trimmedQuery = query.trim();
+    String prefix = escapeLikePattern(trimmedQuery.toLowerCase(Locale.ROOT)) + "%";
+    return animeRepository.searchByName(prefix, trimmedQuery, Math.min(limit, MAX_SEARCH_RESULTS))
+        .name("anime.search").metrics();
+  }
+
+  @Override
+  public Flux<AnimeSuggestion> suggest(String prefix, int limit) {
+    return Flux.defer(() -> Flux.fromIterable(animeNameIndex.suggest(prefix, Math.min(limit, MAX_SUGGESTIONS))));
+  }
+
+  @Override
+  public Mono<AnimeCatalogVersion> findCatalogVersion() {
+    return animeRepository.findCatalogVersion();
   }
 
   @Override
   public Mono<Anime> findById(Integer id) {
     return animeRepository.findById(id)
-        .switchIfEmpty(monoResponseStatusNotFoundException());
+        .switchIfEmpty(monoResponseStatusNotFoundException())
+        .name("anime.findById").metrics();
   }
 
   @Override
   public Mono<Anime> save(Anime anime) {
-    return animeRepository.save(anime);
+    // always a new row: only the name is inserted, id, updated_at and version come back from the
+    // same statement
+    return animeRepository.insertAll(List.of(anime.withId(null).withUpdatedAt(null).withVersion(null)))
+        .single()
+        .doOnNext(saved -> {
+          animeNameIndex.put(saved);
+          animeJsonCache.evict(saved.getId());
+        })
+        .name("anime.save").metrics();
   }
 
   @Override
   public Mono<Void> update(Anime anime) {
-    return findById(anime.getId())
-        .flatMap(a -> animeRepository.save(anime))
-        .then();
+    Mono<Long> update = anime.getVersion() == null
+        ? animeRepository.updateName(anime.getId(), anime.getName())
+            .switchIfEmpty(monoResponseStatusNotFoundException())
+        : animeRepository.updateNameIfVersion(anime.getId(), anime.getName(), anime.getVersion())
+            .switchIfEmpty(Mono.defer(() -> conflictOrNotFound(anime)));
+    return update
+        .doOnNext(version -> {
+          animeNameIndex.put(anime.getId(), anime.getName(), version);
+          animeJsonCache.evict(anime.getId());
+        })
+        .then()
+        .name("anime.update").metrics();
   }
 
   @Override
   public Mono<Void> delete(int id) {
-    return findById(id)
-        .flatMap(animeRepository::delete);
+    return animeRepository.deleteAnimeById(id)
+        .flatMap(this::notFoundWhenNoRowAffected)
+        .doOnSuccess(deleted -> {
+          animeNameIndex.remove(id);
+          animeJsonCache.evict(id);
+        })
+        .name("anime.delete").metrics();
   }
 
   @Override
   @Transactional
   public Flux<Anime> saveAll(List<Anime> animes) {
-    return animeRepository.saveAll(animes)
-        .doOnNext(this::throwResponseStatusExceptionWhenEmptyName);
+    return Flux.defer(() -> {
+      Optional<BatchValidationException> invalidBatch = validateBatch(animes, 0);
+      if (invalidBatch.isPresent())
+        return Flux.error(invalidBatch.get());
+      // indexed only once the batch has committed, so a rolled back batch leaves no names behind
+      List<Anime> saved = new ArrayList<>(animes.size());
+      Runnable indexSaved = () -> saved.forEach(animeNameIndex::put);
+      return runAfterCommit(indexSaved)
+          .flatMapMany(registered -> animeRepository.insertAll(animes)
+              .doOnNext(saved::add)
+              .doOnComplete(() -> {
+                if (!registered)
+                  indexSaved.run();
+              }));
+    }).name("anime.saveAll").metrics();
+  }
+
+  @Override
+  public Flux<AnimeImportProgress> importAll(Flux<Anime> animes) {
+    int chunkSize = animeProperties.getBatch().getChunkSize();
+    return Flux.defer(() -> {
+      AtomicLong totalInserted = new AtomicLong();
+      return animes
+          .buffer(chunkSize)
+          .index()
+          .concatMap(chunk -> importChunk(chunk.getT1(), chunk.getT2(), chunkSize, totalInserted), 1);
+    }).name("anime.importAll").metrics();
+  }
+
+  private Mono<AnimeImportProgress> importChunk(long chunkIndex, List<Anime> chunk, int chunkSize, AtomicLong totalInserted) {
+    Optional<BatchValidationException> invalidChunk = validateBatch(chunk, chunkIndex * chunkSize);
+    if (invalidChunk.isPresent())
+      return Mono.error(invalidChunk.get());
+    return animeRepository.insertAll(chunk)
+        .collectList()
+        .map(saved -> {
+          saved.forEach(animeNameIndex::put);
+          return new AnimeImportProgress(chunkIndex, saved.size(), totalInserted.addAndGet(saved.size()));
+        });
+  }
+
+  /**
+   * Registers {@code action} to run after the surrounding transaction commits. Emits {@code false}
+   * when there is no transaction to wait for, leaving the action to the caller.
+   */
+  private static Mono<Boolean> runAfterCommit(Runnable action) {
+    return TransactionSynchronizationManager.forCurrentTransaction()
+        .filter(TransactionSynchronizationManager::isSynchronizationActive)
+        .map(synchronizations -> {
+          synchronizations.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public Mono<Void> afterCommit() {
+              return Mono.fromRunnable(action);
+            }
+          });
+          return true;
+        })
+        .onErrorResume(NoTransactionException.class, e -> Mono.empty())
+        .defaultIfEmpty(false);
+  }
+
+  private Optional<BatchValidationException> validateBatch(List<Anime> animes, long offset) {
+    List<InvalidItem> errors = new ArrayList<>();
+    int errorCount = 0;
+    for (int i = 0; i < animes.size(); i++) {
+      if (StringUtil.isNullOrEmpty(animes.get(i).getName()) && errorCount++ < MAX_REPORTED_BATCH_ERRORS)
+        errors.add(new InvalidItem(offset + i, "name", "The name of this anime cannot be empty"));
+    }
+    return errorCount == 0 ? Optional.empty() : Optional.of(new BatchValidationException(errors, errorCount));
   }
 
   private <T> Mono<T> monoResponseStatusNotFoundException() {
-    return Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Anime not found"));
+    return Mono.error(() -> new StacklessResponseStatusException(HttpStatus.NOT_FOUND, "Anime not found"));
+  }
+
+  private static String escapeLikePattern(String value) {
+    return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+  }
+
+  private <T> Mono<T> conflictOrNotFound(Anime anime) {
+    return animeRepository.existsById(anime.getId())
+        .flatMap(exists -> exists
+            ? Mono.error(new OptimisticLockingFailureException("Anime " + anime.getId() + " is no longer at version " + anime.getVersion()))
+            : monoResponseStatusNotFoundException());
   }
 
-  private void throwResponseStatusExceptionWhenEmptyName(Anime anime) {
-    if(StringUtil.isNullOrEmpty(anime.getName()))
-      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid name");
+  private Mono<Void> notFoundWhenNoRowAffected(int affectedRows) {
+    return affectedRows == 0 ? monoResponseStatusNotFoundException() : Mono.empty();
   }
 }
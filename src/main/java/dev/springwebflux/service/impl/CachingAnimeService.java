@@ -0,0 +1,232 @@
+package dev.springwebflux.service.impl;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import dev.springwebflux.config.properties.AnimeProperties;
+import dev.springwebflux.domain.Anime;
+import dev.springwebflux.domain.AnimeCatalogVersion;
+import dev.springwebflux.domain.AnimeImportProgress;
+import dev.springwebflux.domain.AnimeSuggestion;
+import dev.springwebflux.exception.StacklessResponseStatusException;
+import dev.springwebflux.service.AnimeService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Read-through cache for {@link AnimeService#findById(Integer)}. Concurrent misses for the same id
+ * share a single load, "not found" results are kept for a shorter time than hits, and every write
+ * evicts the ids it touched. Everything else is passed to {@link AnimeServiceImpl} unchanged.
+ *
+ * <p>Writes bump a generation for the ids they touch when they start and again once they have
+ * committed. A load that overlapped either bump is still returned to its callers but is dropped
+ * from the cache, so a read racing a write can never put the old row back after the eviction.
+ * Batches and imports only create ids, so they drop cached "not found" results once they are done,
+ * which for a transactional batch is after its commit.
+ * Cached anime are private copies and every caller gets its own copy, since {@link Anime} is
+ * mutable.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(prefix = "app.anime.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class CachingAnimeService implements AnimeService, MeterBinder {
+
+  private static final int GENERATION_STRIPES = 1024;
+
+  private final AnimeServiceImpl delegate;
+  private final AsyncCache<Integer, Optional<Anime>> animeCache;
+  private final AtomicLongArray idGenerations = new AtomicLongArray(GENERATION_STRIPES);
+  // bumped by imports, whose ids are only known once they are committed
+  private final AtomicLong importGeneration = new AtomicLong();
+
+  public CachingAnimeService(AnimeServiceImpl delegate, AnimeProperties animeProperties) {
+    this.delegate = delegate;
+    this.animeCache = Caffeine.newBuilder()
+        .maximumSize(animeProperties.getCache().getMaximumSize())
+        .expireAfter(new HitOrMissExpiry(
+            animeProperties.getCache().getTtl().toNanos(),
+            animeProperties.getCache().getNegativeTtl().toNanos()))
+        .recordStats()
+        .buildAsync();
+  }
+
+  @Override
+  public Flux<Anime> findAll() {
+    return delegate.findAll();
+  }
+
+  @Override
+  public Flux<Anime> findAll(int after, int limit) {
+    return delegate.findAll(after, limit);
+  }
+
+  @Override
+  public Flux<Anime> streamAll(int after) {
+    return delegate.streamAll(after);
+  }
+
+  @Override
+  public Flux<Anime> search(String query, int limit) {
+    return delegate.search(query, limit);
+  }
+
+  @Override
+  public Flux<AnimeSuggestion> suggest(String prefix, int limit) {
+    return delegate.suggest(prefix, limit);
+  }
+
+  @Override
+  public Mono<AnimeCatalogVersion> findCatalogVersion() {
+    return delegate.findCatalogVersion();
+  }
+
+  @Override
+  public Mono<Anime> findById(Integer id) {
+    return Mono.defer(() -> {
+      // a dependent stage, so a cancelled subscriber never cancels the load other callers wait on
+      CompletableFuture<Optional<Anime>> load = animeCache.get(id, (key, executor) -> load(key))
+          .thenApply(Function.identity());
+      return Mono.fromFuture(load);
+    }).flatMap(anime -> anime.map(CachingAnimeService::copyOf)
+        .map(Mono::just)
+        .orElseGet(CachingAnimeService::notFound));
+  }
+
+  @Override
+  public Mono<Anime> save(Anime anime) {
+    return delegate.save(anime)
+        .doOnNext(this::evict);
+  }
+
+  @Override
+  public Mono<Void> update(Anime anime) {
+    return delegate.update(anime)
+        .doOnSubscribe(subscription -> evict(anime.getId()))
+        .doFinally(signal -> evict(anime.getId()));
+  }
+
+  @Override
+  public Mono<Void> delete(int id) {
+    return delegate.delete(id)
+        .doOnSubscribe(subscription -> evict(id))
+        .doFinally(signal -> evict(id));
+  }
+
+  @Override
+  public Flux<Anime> saveAll(List<Anime> animes) {
+    // the rows are emitted before the batch commits, a read in between still finds nothing
+    return delegate.saveAll(animes)
+        .doFinally(signal -> evictNotFound());
+  }
+
+  @Override
+  public Flux<AnimeImportProgress> importAll(Flux<Anime> animes) {
+    // imported rows get fresh ids, so only cached "not found" entries can be stale
+    return delegate.importAll(animes)
+        .doFinally(signal -> evictNotFound());
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    CaffeineCacheMetrics.monitor(registry, animeCache.synchronous(), "anime");
+  }
+
+  public CacheStats stats() {
+    return animeCache.synchronous().stats();
+  }
+
+  public long estimatedSize() {
+    return animeCache.synchronous().estimatedSize();
+  }
+
+  private CompletableFuture<Optional<Anime>> load(Integer id) {
+    long idGeneration = idGenerations.get(stripe(id));
+    long imports = importGeneration.get();
+    CompletableFuture<Optional<Anime>> load = delegate.findById(id)
+        .map(CachingAnimeService::copyOf)
+        .map(Optional::of)
+        .onErrorResume(CachingAnimeService::isNotFound, e -> Mono.just(Optional.empty()))
+        .toFuture();
+    load.thenAccept(anime -> {
+      boolean stale = idGenerations.get(stripe(id)) != idGeneration
+          || (anime.isEmpty() && importGeneration.get() != imports);
+      if (stale)
+        animeCache.asMap().remove(id, load);
+    });
+    return load;
+  }
+
+  private void evict(Anime anime) {
+    evict(anime.getId());
+  }
+
+  private void evict(Integer id) {
+    if (id == null)
+      return;
+    idGenerations.incrementAndGet(stripe(id));
+    animeCache.synchronous().invalidate(id);
+  }
+
+  private void evictNotFound() {
+    importGeneration.incrementAndGet();
+    animeCache.synchronous().asMap().values().removeIf(Optional::isEmpty);
+  }
+
+  private static int stripe(Integer id) {
+    return Math.floorMod(id, GENERATION_STRIPES);
+  }
+
+  private static Anime copyOf(Anime anime) {
+    return anime.toBuilder().build();
+  }
+
+  private static boolean isNotFound(Throwable throwable) {
+    return throwable instanceof ResponseStatusException
+        && ((ResponseStatusException) throwable).getStatus() == HttpStatus.NOT_FOUND;
+  }
+
+  private static <T> Mono<T> notFound() {
+    return Mono.error(() -> new StacklessResponseStatusException(HttpStatus.NOT_FOUND, "Anime not found"));
+  }
+
+  private static class HitOrMissExpiry implements Expiry<Integer, Optional<Anime>> {
+
+    private final long hitTtlNanos;
+    private final long missTtlNanos;
+
+    HitOrMissExpiry(long hitTtlNanos, long missTtlNanos) {
+      this.hitTtlNanos = hitTtlNanos;
+      this.missTtlNanos = missTtlNanos;
+    }
+
+    @Override
+    public long expireAfterCreate(Integer id, Optional<Anime> anime, long currentTime) {
+      return anime.isPresent() ? hitTtlNanos : missTtlNanos;
+    }
+
+    @Override
+    public long expireAfterUpdate(Integer id, Optional<Anime> anime, long currentTime, long currentDuration) {
+      return expireAfterCreate(id, anime, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(Integer id, Optional<Anime> anime, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
@@ -1,21 +1,69 @@
 package dev.springwebflux.service.impl;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import dev.springwebflux.config.properties.AuthProperties;
+import dev.springwebflux.domain.UserLogin;
 import dev.springwebflux.repository.UserLoginRepository;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
+/**
+ * Loads users for authentication through a short lived cache. Nothing in the application writes
+ * {@code user_login}, so a password or role changed in the database is only picked up once the
+ * cached entry expires: {@code app.security.user-cache.ttl} is the bound on how stale a user can
+ * be. Code that starts changing users should call {@link #evict(String)} after its commit.
+ */
 @Service
-@RequiredArgsConstructor
-public class UserLoginServiceImpl implements ReactiveUserDetailsService {
+public class UserLoginServiceImpl implements ReactiveUserDetailsService, MeterBinder {
 
   private final UserLoginRepository userLoginRepository;
+  private final Cache<String, UserLogin> userCache;
+
+  public UserLoginServiceImpl(UserLoginRepository userLoginRepository, AuthProperties authProperties) {
+    this.userLoginRepository = userLoginRepository;
+    this.userCache = Caffeine.newBuilder()
+        .maximumSize(authProperties.getUserCache().getMaximumSize())
+        .expireAfterWrite(authProperties.getUserCache().getTtl())
+        .recordStats()
+        .build();
+  }
 
   @Override
   public Mono<UserDetails> findByUsername(String username) {
-    return userLoginRepository.findByUsername(username)
-        .cast(UserDetails.class);
+    return Mono.defer(() -> {
+      UserLogin cached = userCache.getIfPresent(username);
+      if (cached != null)
+        return Mono.just(cached);
+      return userLoginRepository.findByUsername(username)
+          .doOnNext(userLogin -> userCache.put(username, userLogin));
+    }).cast(UserDetails.class);
+  }
+
+  public void evict(String username) {
+    userCache.invalidate(username);
+  }
+
+  public void evictAll() {
+    userCache.invalidateAll();
+  }
+
+  public CacheStats stats() {
+    return userCache.stats();
+  }
+
+  public long estimatedSize() {
+    return userCache.estimatedSize();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    CaffeineCacheMetrics.monitor(registry, userCache, "userLogin");
   }
 }
@@ -1,12 +1,24 @@
+create sequence anime.anime_version_seq;
+
 create table anime.anime(
 	id serial not null,
-	name varchar
+	name varchar,
+	updated_at timestamp not null default now(),
+	version bigint not null default nextval('anime.anime_version_seq')
 );
 
 create unique index anime_id_uindex on anime.anime (id);
 
 alter table anime.anime add constraint anime_pk primary key (id);
 
+create extension if not exists pg_trgm;
+
+create index anime_name_lower_prefix_index on anime.anime (lower(name) text_pattern_ops);
+
+create index anime_name_trgm_index on anime.anime using gin (name gin_trgm_ops);
+
+create index anime_version_index on anime.anime (version);
+
 create table anime.user_login(
 	id serial not null,
 	name varchar(255) not null,
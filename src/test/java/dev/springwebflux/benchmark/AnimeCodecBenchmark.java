@@ -0,0 +1,129 @@
+package dev.springwebflux.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import dev.springwebflux.config.AnimeJsonModule;
+import dev.springwebflux.domain.Anime;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+
+/**
+ * Encodes and decodes {@link Anime} with the same Jackson codecs WebFlux uses, one document and a
+ * JSON array of {@code size} documents per operation. {@code mapper} is the plain reflective
+ * {@link ObjectMapper}, the same with Afterburner, or the application's tuned mapper with
+ * Afterburner and {@link AnimeJsonModule}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnimeCodecBenchmark {
+
+  private static final ResolvableType ANIME_TYPE = ResolvableType.forClass(Anime.class);
+  private static final ResolvableType ANIME_LIST_TYPE = ResolvableType.forClassWithGenerics(List.class, Anime.class);
+
+  @Param({"1", "1000", "10000"})
+  public int size;
+
+  @Param({"reflective", "afterburner", "tuned"})
+  public String mapper;
+
+  private final DataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+  private Jackson2JsonEncoder encoder;
+  private Jackson2JsonDecoder decoder;
+  private Anime anime;
+  private List<Anime> animes;
+  private byte[] animeJson;
+  private byte[] animesJson;
+
+  @Setup
+  public void setUp() throws Exception {
+    ObjectMapper objectMapper = objectMapperBuilder().build();
+    encoder = new Jackson2JsonEncoder(objectMapper);
+    decoder = new Jackson2JsonDecoder(objectMapper);
+    LocalDateTime updatedAt = LocalDateTime.of(2020, 7, 1, 12, 0);
+    animes = IntStream.rangeClosed(1, size)
+        .mapToObj(id -> new Anime(id, "Naruto " + id, updatedAt, 0L))
+        .collect(Collectors.toList());
+    anime = animes.get(0);
+    animeJson = objectMapper.writeValueAsBytes(anime);
+    animesJson = objectMapper.writeValueAsBytes(animes);
+  }
+
+  @Benchmark
+  public int encodeOne() {
+    DataBuffer buffer = encoder.encodeValue(anime, bufferFactory, ANIME_TYPE, MediaType.APPLICATION_JSON, Collections.emptyMap());
+    int written = buffer.readableByteCount();
+    DataBufferUtils.release(buffer);
+    return written;
+  }
+
+  @Benchmark
+  public int encodeFlux() {
+    return encoder.encode(Flux.fromIterable(animes), bufferFactory, ANIME_TYPE, MediaType.APPLICATION_JSON, Collections.emptyMap())
+        .map(buffer -> {
+          int written = buffer.readableByteCount();
+          DataBufferUtils.release(buffer);
+          return written;
+        })
+        .reduce(0, Integer::sum)
+        .block();
+  }
+
+  @Benchmark
+  public Object decodeOne() {
+    return decoder.decode(bufferFactory.wrap(animeJson), ANIME_TYPE, MediaType.APPLICATION_JSON, Collections.emptyMap());
+  }
+
+  @Benchmark
+  public Object decodeArray() {
+    return decoder.decodeToMono(Flux.just(bufferFactory.wrap(animesJson)), ANIME_LIST_TYPE, MediaType.APPLICATION_JSON, Collections.emptyMap())
+        .block();
+  }
+
+  private Jackson2ObjectMapperBuilder objectMapperBuilder() {
+    Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+    switch (mapper) {
+      case "afterburner":
+        return builder.modulesToInstall(new AfterburnerModule());
+      case "tuned":
+        return builder.modulesToInstall(new AfterburnerModule(), new AnimeJsonModule())
+            .featuresToDisable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+      default:
+        return builder;
+    }
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    BenchmarkLauncher.run(AnimeCodecBenchmark.class);
+  }
+}
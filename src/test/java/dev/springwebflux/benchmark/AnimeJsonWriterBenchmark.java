@@ -0,0 +1,89 @@
+package dev.springwebflux.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.springwebflux.config.PreEncodedAnimeJsonWriter;
+import dev.springwebflux.config.properties.AnimeProperties;
+import dev.springwebflux.domain.Anime;
+import dev.springwebflux.service.impl.AnimeJsonCache;
+import io.netty.buffer.PooledByteBufAllocator;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.EncoderHttpMessageWriter;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * Writes the {@code GET /animes/{id}} body to a Netty backed response with the default
+ * {@link Jackson2JsonEncoder} and with {@link PreEncodedAnimeJsonWriter}, once for an anime already
+ * in {@link AnimeJsonCache} and once for an anime that changed since, which pays for encoding and
+ * replacing the cached copy.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnimeJsonWriterBenchmark {
+
+  private static final ResolvableType ANIME_TYPE = ResolvableType.forClass(Anime.class);
+
+  private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+  private HttpMessageWriter<Object> jacksonWriter;
+  private PreEncodedAnimeJsonWriter preEncodedWriter;
+  private Anime anime;
+  private long version;
+
+  @Setup
+  public void setUp() {
+    ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    jacksonWriter = new EncoderHttpMessageWriter<>(new Jackson2JsonEncoder(objectMapper));
+    preEncodedWriter = new PreEncodedAnimeJsonWriter(new AnimeJsonCache(objectMapper, new AnimeProperties()), jacksonWriter);
+    anime = new Anime(1, "Naruto Shippuden", LocalDateTime.of(2020, 7, 1, 12, 0), 0L);
+  }
+
+  @Benchmark
+  public long jacksonEncoder() {
+    return write(jacksonWriter, anime);
+  }
+
+  @Benchmark
+  public long preEncodedHit() {
+    return write(preEncodedWriter, anime);
+  }
+
+  @Benchmark
+  public long preEncodedMiss() {
+    return write(preEncodedWriter, anime.withVersion(++version));
+  }
+
+  private long write(HttpMessageWriter<? super Anime> writer, Anime anime) {
+    MockServerHttpResponse response = new MockServerHttpResponse(bufferFactory);
+    response.setWriteHandler(body -> body.doOnNext(DataBufferUtils::release).then());
+    writer.write(Mono.just(anime), ANIME_TYPE, MediaType.APPLICATION_JSON, response, Collections.emptyMap()).block();
+    return response.getHeaders().getContentLength();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    BenchmarkLauncher.run(AnimeJsonWriterBenchmark.class);
+  }
+}
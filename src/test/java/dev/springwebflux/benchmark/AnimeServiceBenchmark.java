@@ -0,0 +1,111 @@
+package dev.springwebflux.benchmark;
+
+import dev.springwebflux.config.properties.AnimeProperties;
+import dev.springwebflux.domain.Anime;
+import dev.springwebflux.repository.AnimeRepository;
+import dev.springwebflux.service.AnimeService;
+import dev.springwebflux.service.impl.AnimeJsonCache;
+import dev.springwebflux.service.impl.AnimeNameIndex;
+import dev.springwebflux.service.impl.AnimeServiceImpl;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Cost of the {@link AnimeServiceImpl} pipelines themselves, over a repository that answers
+ * immediately from memory, so only operator assembly, subscription and the service logic are
+ * measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnimeServiceBenchmark {
+
+  private static final int PAGE_SIZE = 50;
+
+  private AnimeService animeService;
+  private Anime update;
+
+  @Setup
+  public void setUp() {
+    LocalDateTime updatedAt = LocalDateTime.of(2020, 7, 1, 12, 0);
+    List<Anime> page = IntStream.rangeClosed(1, PAGE_SIZE)
+        .mapToObj(id -> new Anime(id, "Naruto " + id, updatedAt, 0L))
+        .collect(Collectors.toList());
+    AnimeNameIndex animeNameIndex = new AnimeNameIndex();
+    page.forEach(animeNameIndex::put);
+    AnimeProperties animeProperties = new AnimeProperties();
+    AnimeJsonCache animeJsonCache = new AnimeJsonCache(Jackson2ObjectMapperBuilder.json().build(), animeProperties);
+    animeService = new AnimeServiceImpl(inMemoryRepository(page), animeProperties, animeNameIndex, animeJsonCache);
+    update = page.get(0).withName("Naruto Shippuden").withVersion(0L);
+  }
+
+  @Benchmark
+  public Anime findById() {
+    return animeService.findById(1).block();
+  }
+
+  @Benchmark
+  public List<Anime> findPage() {
+    return animeService.findAll(0, PAGE_SIZE).collectList().block();
+  }
+
+  @Benchmark
+  public List<Anime> search() {
+    return animeService.search("naru", PAGE_SIZE).collectList().block();
+  }
+
+  @Benchmark
+  public Object suggest() {
+    return animeService.suggest("naruto 1", 10).collectList().block();
+  }
+
+  @Benchmark
+  public Object update() {
+    return animeService.update(update).block();
+  }
+
+  private static AnimeRepository inMemoryRepository(List<Anime> page) {
+    return (AnimeRepository) Proxy.newProxyInstance(AnimeRepository.class.getClassLoader(), new Class<?>[]{AnimeRepository.class},
+        (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "findById":
+              return Mono.just(page.get(0));
+            case "findPageAfter":
+            case "searchByName":
+              return Flux.fromIterable(page);
+            case "updateName":
+            case "updateNameIfVersion":
+              return Mono.just(2L);
+            case "deleteAnimeById":
+              return Mono.just(1);
+            default:
+              throw new UnsupportedOperationException(method.getName());
+          }
+        });
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    BenchmarkLauncher.run(AnimeServiceBenchmark.class);
+  }
+}
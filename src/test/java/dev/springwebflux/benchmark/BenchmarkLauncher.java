@@ -0,0 +1,23 @@
+package dev.springwebflux.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs a single benchmark class from the IDE with the options {@code mvn -P benchmarks verify}
+ * uses, allocation rates from the GC profiler included.
+ */
+final class BenchmarkLauncher {
+
+  private BenchmarkLauncher() {
+  }
+
+  static void run(Class<?> benchmark) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(benchmark.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build()).run();
+  }
+}
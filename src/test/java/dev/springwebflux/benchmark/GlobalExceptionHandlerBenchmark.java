@@ -0,0 +1,88 @@
+package dev.springwebflux.benchmark;
+
+import dev.springwebflux.exception.CustomAttributes;
+import dev.springwebflux.exception.GlobalExceptionHandler;
+import dev.springwebflux.exception.StacklessResponseStatusException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+import org.springframework.boot.autoconfigure.web.ResourceProperties;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Full error path of {@link GlobalExceptionHandler}: building the error attributes through
+ * {@link CustomAttributes} and writing them as JSON, for the errors clients hit most.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GlobalExceptionHandlerBenchmark {
+
+  private GenericApplicationContext applicationContext;
+  private GlobalExceptionHandler exceptionHandler;
+
+  @Setup
+  public void setUp() throws Exception {
+    applicationContext = new GenericApplicationContext();
+    applicationContext.refresh();
+    exceptionHandler = new GlobalExceptionHandler(new CustomAttributes(), new ResourceProperties(),
+        applicationContext, ServerCodecConfigurer.create());
+    exceptionHandler.setViewResolvers(Collections.emptyList());
+    exceptionHandler.afterPropertiesSet();
+  }
+
+  @TearDown
+  public void tearDown() {
+    applicationContext.close();
+  }
+
+  @Benchmark
+  public String notFound() {
+    return handle("/animes/42", new ResponseStatusException(HttpStatus.NOT_FOUND, "Anime not found"));
+  }
+
+  @Benchmark
+  public String notFoundStackless() {
+    return handle("/animes/42", new StacklessResponseStatusException(HttpStatus.NOT_FOUND, "Anime not found"));
+  }
+
+  @Benchmark
+  public String notFoundWithTrace() {
+    return handle("/animes/42?trace=true", new ResponseStatusException(HttpStatus.NOT_FOUND, "Anime not found"));
+  }
+
+  @Benchmark
+  public String conflict() {
+    return handle("/animes/42", new OptimisticLockingFailureException("Anime 42 is no longer at version 3"));
+  }
+
+  private String handle(String uri, Throwable error) {
+    MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(uri));
+    exceptionHandler.handle(exchange, error).block();
+    return exchange.getResponse().getBodyAsString().block();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    BenchmarkLauncher.run(GlobalExceptionHandlerBenchmark.class);
+  }
+}
@@ -0,0 +1,67 @@
+package dev.springwebflux.benchmark;
+
+import dev.springwebflux.domain.UserLogin;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.RunnerException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Compares reading the authorities of a {@link UserLogin} the way a request does (three calls:
+ * path matcher, method security, authentication token) against splitting the column on every
+ * call. Run with the GC profiler to see {@code gc.alloc.rate.norm} per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserLoginAuthoritiesBenchmark {
+
+  private static final int CALLS_PER_REQUEST = 3;
+  private static final String AUTHORITIES = "ROLE_ADMIN,ROLE_USER";
+
+  private UserLogin userLogin;
+
+  @Setup
+  public void setUp() {
+    userLogin = new UserLogin(1, "wallacy", "wall", "{noop}devwall", AUTHORITIES);
+  }
+
+  @Benchmark
+  public void precomputedAuthorities(Blackhole blackhole) {
+    for (int i = 0; i < CALLS_PER_REQUEST; i++)
+      blackhole.consume(userLogin.getAuthorities());
+  }
+
+  @Benchmark
+  public void splitOnEveryCall(Blackhole blackhole) {
+    for (int i = 0; i < CALLS_PER_REQUEST; i++)
+      blackhole.consume(splitAuthorities(AUTHORITIES));
+  }
+
+  private static Collection<? extends GrantedAuthority> splitAuthorities(String authorities) {
+    return Arrays.stream(authorities.split(","))
+        .map(SimpleGrantedAuthority::new)
+        .collect(Collectors.toList());
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    BenchmarkLauncher.run(UserLoginAuthoritiesBenchmark.class);
+  }
+}
@@ -0,0 +1,81 @@
+package dev.springwebflux.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import dev.springwebflux.domain.Anime;
+import dev.springwebflux.util.AnimeCreator;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+class AnimeJsonModuleTest {
+
+  private static final TypeReference<List<Anime>> ANIME_LIST = new TypeReference<>() {
+  };
+
+  ObjectMapper reflectiveMapper;
+  ObjectMapper animeModuleMapper;
+
+  private final Anime anime = AnimeCreator.createValidAnime()
+      .withUpdatedAt(LocalDateTime.of(2020, 7, 1, 12, 0, 0, 500_000))
+      .withVersion(3L);
+
+  @BeforeEach
+  void setUp() {
+    // the Spring Boot defaults the application runs with
+    reflectiveMapper = Jackson2ObjectMapperBuilder.json()
+        .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+        .build();
+    animeModuleMapper = reflectiveMapper.copy().registerModule(new AnimeJsonModule());
+  }
+
+  @Test
+  @DisplayName("SHOULD write the same JSON as the reflective serializer WHEN anime are serialized")
+  void shouldWriteTheSameJsonAsTheReflectiveSerializerWhenAnimeAreSerialized() throws Exception {
+    List<Anime> animes = Arrays.asList(anime, new Anime(), AnimeCreator.createValidUpdateAnime().withName("Say \"ni\""));
+
+    assertEquals(reflectiveMapper.writeValueAsString(anime), animeModuleMapper.writeValueAsString(anime));
+    assertEquals(reflectiveMapper.writeValueAsString(animes), animeModuleMapper.writeValueAsString(animes));
+  }
+
+  @Test
+  @DisplayName("SHOULD read the same anime as the reflective deserializer WHEN known and unknown fields are present")
+  void shouldReadTheSameAnimeAsTheReflectiveDeserializerWhenKnownAndUnknownFieldsArePresent() throws Exception {
+    String json = "{\"id\":\"1\",\"tags\":{\"genres\":[\"action\"]},\"name\":\"Naruto\",\"version\":null}";
+
+    assertEquals(reflectiveMapper.readValue(json, Anime.class), animeModuleMapper.readValue(json, Anime.class));
+    String list = "[" + reflectiveMapper.writeValueAsString(anime) + ",null]";
+    assertEquals(reflectiveMapper.readValue(list, ANIME_LIST), animeModuleMapper.readValue(list, ANIME_LIST));
+  }
+
+  @Test
+  @DisplayName("SHOULD ignore updatedAt and version WHEN they are sent by the client")
+  void shouldIgnoreUpdatedAtAndVersionWhenTheyAreSentByTheClient() throws Exception {
+    String json = animeModuleMapper.writeValueAsString(anime);
+    Anime read = animeModuleMapper.readValue(json, Anime.class);
+
+    assertNull(read.getUpdatedAt());
+    assertNull(read.getVersion());
+    assertEquals(reflectiveMapper.readValue(json, Anime.class), read);
+  }
+
+  @Test
+  @DisplayName("SHOULD fail like the reflective deserializer WHEN a field has the wrong shape")
+  void shouldFailLikeTheReflectiveDeserializerWhenAFieldHasTheWrongShape() {
+    String json = "{\"id\":[1],\"name\":\"Naruto\"}";
+
+    assertThrows(MismatchedInputException.class, () -> reflectiveMapper.readValue(json, Anime.class));
+    assertThrows(MismatchedInputException.class, () -> animeModuleMapper.readValue(json, Anime.class));
+  }
+}
@@ -0,0 +1,116 @@
+package dev.springwebflux.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import dev.springwebflux.config.properties.NettyProperties;
+import dev.springwebflux.config.properties.StallDetectorProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.netty.resources.LoopResources;
+
+class EventLoopStallDetectorTest {
+
+  EventLoopStallDetector stallDetector;
+  MeterRegistry meterRegistry;
+  ExecutorService eventLoop;
+
+  @BeforeEach
+  void setUp() {
+    StallDetectorProperties properties = new StallDetectorProperties();
+    properties.setThreshold(Duration.ofMillis(50));
+    meterRegistry = new SimpleMeterRegistry();
+    eventLoop = Executors.newSingleThreadExecutor();
+    stallDetector = new EventLoopStallDetector(properties, new NettyProperties(),
+        LoopResources.create("stall-detector-test"), meterRegistry);
+    stallDetector.watch("test", eventLoop);
+  }
+
+  @AfterEach
+  void tearDown() {
+    eventLoop.shutdownNow();
+    stallDetector.destroy();
+  }
+
+  @Test
+  @DisplayName("SHOULD record the probe delay WHEN the event loop is idle")
+  void shouldRecordTheProbeDelayWhenTheEventLoopIsIdle() throws Exception {
+    stallDetector.sample();
+    awaitIdle();
+
+    assertEquals(1, meterRegistry.get("eventloop.probe.delay").tag("group", "test").timer().count());
+    assertEquals(0, stalls());
+  }
+
+  @Test
+  @DisplayName("SHOULD count a stall once WHEN the event loop is blocked past the threshold")
+  void shouldCountAStallOnceWhenTheEventLoopIsBlockedPastTheThreshold() throws Exception {
+    awaitIdle();
+    CountDownLatch blocked = new CountDownLatch(1);
+    eventLoop.execute(() -> {
+      try {
+        blocked.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+
+    stallDetector.sample();
+    Thread.sleep(100);
+    stallDetector.sample();
+    stallDetector.sample();
+    blocked.countDown();
+    awaitIdle();
+
+    assertEquals(1, stalls());
+    assertEquals(1, meterRegistry.get("eventloop.probe.delay").tag("group", "test").timer().count());
+  }
+
+  @Test
+  @DisplayName("SHOULD queue a new probe WHEN the event loop rejected the previous one")
+  void shouldQueueANewProbeWhenTheEventLoopRejectedThePreviousOne() throws Exception {
+    AtomicBoolean rejecting = new AtomicBoolean(true);
+    stallDetector.watch("rejecting", task -> {
+      if (rejecting.get())
+        throw new RejectedExecutionException("event executor terminated");
+      eventLoop.execute(task);
+    });
+
+    stallDetector.sample();
+    Thread.sleep(100);
+    rejecting.set(false);
+    stallDetector.sample();
+    awaitIdle();
+
+    assertEquals(0, meterRegistry.get("eventloop.stalls").tag("group", "rejecting").counter().count());
+    assertEquals(1, meterRegistry.get("eventloop.probe.delay").tag("group", "rejecting").timer().count());
+  }
+
+  @Test
+  @DisplayName("SHOULD watch the global client loops WHEN started")
+  void shouldWatchTheGlobalClientLoopsWhenStarted() {
+    stallDetector.start();
+
+    assertFalse(meterRegistry.find("eventloop.probe.delay").tag("group", "tcp-client").timers().isEmpty());
+    assertFalse(meterRegistry.find("eventloop.probe.delay").tag("group", "http-client").timers().isEmpty());
+  }
+
+  private double stalls() {
+    return meterRegistry.get("eventloop.stalls").tag("group", "test").counter().count();
+  }
+
+  private void awaitIdle() throws Exception {
+    eventLoop.submit(() -> { }).get(1, TimeUnit.SECONDS);
+  }
+}
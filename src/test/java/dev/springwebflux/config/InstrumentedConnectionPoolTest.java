@@ -0,0 +1,79 @@
+package dev.springwebflux.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import java.time.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class InstrumentedConnectionPoolTest {
+
+  ConnectionFactory connectionFactory;
+  Connection connection;
+  MeterRegistry meterRegistry;
+  ConnectionPool connectionPool;
+
+  @BeforeEach
+  void setUp() {
+    connectionFactory = Mockito.mock(ConnectionFactory.class);
+    connection = Mockito.mock(Connection.class);
+    Mockito.doReturn(Mono.just(true)).when(connection).validate(Mockito.any());
+    Mockito.doReturn(Mono.empty()).when(connection).close();
+    meterRegistry = new SimpleMeterRegistry();
+    connectionPool = new InstrumentedConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+        .initialSize(0)
+        .maxSize(1)
+        .maxAcquireTime(Duration.ofSeconds(1))
+        .build(), "test", meterRegistry);
+  }
+
+  @AfterEach
+  void tearDown() {
+    connectionPool.dispose();
+  }
+
+  @Test
+  @DisplayName("SHOULD time successful connection acquisitions")
+  void shouldTimeSuccessfulConnectionAcquisitions() {
+    Mockito.doReturn(Mono.just(connection)).when(connectionFactory).create();
+
+    StepVerifier.create(connectionPool.create())
+        .expectNextCount(1)
+        .verifyComplete();
+
+    assertEquals(1, acquireCount("success"));
+    assertEquals(0, acquireCount("error"));
+  }
+
+  @Test
+  @DisplayName("SHOULD time failed connection acquisitions")
+  void shouldTimeFailedConnectionAcquisitions() {
+    Mockito.doReturn(Mono.error(new IllegalStateException("database down"))).when(connectionFactory).create();
+
+    StepVerifier.create(connectionPool.create())
+        .expectError()
+        .verify();
+
+    assertEquals(0, acquireCount("success"));
+    assertEquals(1, acquireCount("error"));
+  }
+
+  private long acquireCount(String outcome) {
+    return meterRegistry.get("r2dbc.pool.acquire")
+        .tag("name", "test")
+        .tag("outcome", outcome)
+        .timer()
+        .count();
+  }
+}
@@ -0,0 +1,121 @@
+package dev.springwebflux.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.springwebflux.config.properties.AnimeProperties;
+import dev.springwebflux.domain.Anime;
+import dev.springwebflux.service.impl.AnimeJsonCache;
+import dev.springwebflux.util.AnimeCreator;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.EncoderHttpMessageWriter;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class PreEncodedAnimeJsonWriterTest {
+
+  private static final ResolvableType ANIME_TYPE = ResolvableType.forClass(Anime.class);
+
+  ObjectMapper objectMapper;
+  AnimeJsonCache animeJsonCache;
+  PreEncodedAnimeJsonWriter writer;
+
+  private final Anime anime = AnimeCreator.createValidAnime();
+
+  @BeforeEach
+  void setUp() {
+    objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    animeJsonCache = new AnimeJsonCache(objectMapper, new AnimeProperties());
+    writer = new PreEncodedAnimeJsonWriter(animeJsonCache, new EncoderHttpMessageWriter<>(new Jackson2JsonEncoder(objectMapper)));
+  }
+
+  @Test
+  @DisplayName("SHOULD write the same body as Jackson WHEN a single anime is written")
+  void shouldWriteTheSameBodyAsJacksonWhenASingleAnimeIsWritten() throws Exception {
+    MockServerHttpResponse response = nettyResponse();
+
+    StepVerifier.create(writer.write(Mono.just(anime), ANIME_TYPE, MediaType.APPLICATION_JSON, response, Collections.emptyMap()))
+        .verifyComplete();
+
+    String expected = objectMapper.writeValueAsString(anime);
+    StepVerifier.create(response.getBodyAsString())
+        .expectNext(expected)
+        .verifyComplete();
+    assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+    assertEquals(expected.length(), response.getHeaders().getContentLength());
+  }
+
+  @Test
+  @DisplayName("SHOULD reuse the encoded body WHEN the same anime is written again")
+  void shouldReuseTheEncodedBodyWhenTheSameAnimeIsWrittenAgain() {
+    write(anime);
+    write(new Anime(anime.getId(), anime.getName(), anime.getUpdatedAt(), anime.getVersion()));
+
+    assertEquals(1, animeJsonCache.stats().hitCount());
+  }
+
+  @Test
+  @DisplayName("SHOULD encode the anime again WHEN it changed since it was cached")
+  void shouldEncodeTheAnimeAgainWhenItChangedSinceItWasCached() throws Exception {
+    write(anime);
+    Anime renamed = anime.withName("Naruto Shippuden");
+
+    assertEquals(objectMapper.writeValueAsString(renamed), write(renamed));
+  }
+
+  @Test
+  @DisplayName("SHOULD release the cached buffer WHEN it was evicted and the last written slice is released")
+  void shouldReleaseTheCachedBufferWhenItWasEvictedAndTheLastWrittenSliceIsReleased() {
+    List<DataBuffer> written = new ArrayList<>();
+    MockServerHttpResponse response = nettyResponse();
+    response.setWriteHandler(body -> body.doOnNext(written::add).then());
+    writer.write(Mono.just(anime), ANIME_TYPE, MediaType.APPLICATION_JSON, response, Collections.emptyMap()).block();
+    ByteBuf cached = ((NettyDataBuffer) written.get(0)).getNativeBuffer().unwrap();
+
+    animeJsonCache.evict(anime.getId());
+    assertEquals(1, cached.refCnt());
+
+    DataBufferUtils.release(written.get(0));
+    assertEquals(0, cached.refCnt());
+  }
+
+  @Test
+  @DisplayName("SHOULD hand the listing to the Jackson writer WHEN a flux of anime is written")
+  void shouldHandTheListingToTheJacksonWriterWhenAFluxOfAnimeIsWritten() throws Exception {
+    MockServerHttpResponse response = nettyResponse();
+    Anime other = AnimeCreator.createValidUpdateAnime().withId(2);
+
+    writer.write(Flux.just(anime, other), ANIME_TYPE, MediaType.APPLICATION_JSON, response, Collections.emptyMap()).block();
+
+    StepVerifier.create(response.getBodyAsString())
+        .expectNext(objectMapper.writeValueAsString(List.of(anime, other)))
+        .verifyComplete();
+  }
+
+  private String write(Anime anime) {
+    MockServerHttpResponse response = nettyResponse();
+    writer.write(Mono.just(anime), ANIME_TYPE, MediaType.APPLICATION_JSON, response, Collections.emptyMap()).block();
+    return response.getBodyAsString().block();
+  }
+
+  private static MockServerHttpResponse nettyResponse() {
+    return new MockServerHttpResponse(new NettyDataBufferFactory(UnpooledByteBufAllocator.DEFAULT));
+  }
+}
@@ -0,0 +1,118 @@
+package dev.springwebflux.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import dev.springwebflux.config.properties.AnimeProperties;
+import dev.springwebflux.domain.Anime;
+import dev.springwebflux.repository.AnimeBatchRepositoryImpl;
+import dev.springwebflux.repository.AnimeStreamRepositoryImpl;
+import dev.springwebflux.repository.AnimeUpdateRepositoryImpl;
+import dev.springwebflux.repository.AnimeRepository;
+import dev.springwebflux.util.AnimeCreator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.ConnectionFactories;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import org.springframework.data.r2dbc.core.DefaultReactiveDataAccessStrategy;
+import org.springframework.data.r2dbc.dialect.H2Dialect;
+import org.springframework.data.r2dbc.repository.support.R2dbcRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class RepositoryMetricsInterceptorTest {
+
+  AnimeRepository animeRepository;
+  AnimeRepository timedRepository;
+  MeterRegistry meterRegistry;
+  ObjectProvider<MeterRegistry> meterRegistryProvider;
+
+  private final Anime anime = AnimeCreator.createValidAnime();
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    meterRegistryProvider = Mockito.mock(ObjectProvider.class);
+    Mockito.when(meterRegistryProvider.getObject()).thenReturn(meterRegistry);
+    animeRepository = Mockito.mock(AnimeRepository.class);
+    ProxyFactory proxyFactory = new ProxyFactory(animeRepository);
+    proxyFactory.addInterface(AnimeRepository.class);
+    proxyFactory.addAdvice(new RepositoryMetricsInterceptor(meterRegistryProvider, "AnimeRepository"));
+    timedRepository = (AnimeRepository) proxyFactory.getProxy();
+  }
+
+  @Test
+  @DisplayName("SHOULD time a Mono repository call once it completes")
+  void shouldTimeAMonoRepositoryCallOnceItCompletes() {
+    Mockito.when(animeRepository.findById(1)).thenReturn(Mono.just(anime));
+
+    StepVerifier.create(timedRepository.findById(1))
+        .expectNext(anime)
+        .verifyComplete();
+
+    assertEquals(1, count("findById", "SUCCESS"));
+  }
+
+  @Test
+  @DisplayName("SHOULD time a failing Flux repository call as an error")
+  void shouldTimeAFailingFluxRepositoryCallAsAnError() {
+    Mockito.when(animeRepository.findAll()).thenReturn(Flux.error(new IllegalStateException("database down")));
+
+    StepVerifier.create(timedRepository.findAll())
+        .expectError(IllegalStateException.class)
+        .verify();
+
+    assertEquals(1, count("findAll", "ERROR"));
+  }
+
+  @Test
+  @DisplayName("SHOULD not time a repository call nobody subscribed to")
+  void shouldNotTimeARepositoryCallNobodySubscribedTo() {
+    Mockito.when(animeRepository.findById(1)).thenReturn(Mono.just(anime));
+
+    timedRepository.findById(1);
+
+    assertEquals(0, meterRegistry.find(RepositoryMetricsInterceptor.METRIC_NAME).timers().size());
+  }
+
+  @Test
+  @DisplayName("SHOULD time query and CRUD methods WHEN the post processor instruments a Spring Data repository proxy")
+  void shouldTimeQueryAndCrudMethodsWhenThePostProcessorInstrumentsASpringDataRepositoryProxy() {
+    DatabaseClient databaseClient = DatabaseClient.create(ConnectionFactories.get("r2dbc:h2:mem:///repositorymetrics?options=DB_CLOSE_DELAY=-1"));
+    databaseClient.execute("CREATE TABLE IF NOT EXISTS anime (id INT AUTO_INCREMENT PRIMARY KEY, name VARCHAR,"
+        + " updated_at TIMESTAMP NOT NULL DEFAULT now(), version BIGINT NOT NULL DEFAULT 0)")
+        .then()
+        .block();
+    AnimeRepository repository = new R2dbcRepositoryFactory(databaseClient, new DefaultReactiveDataAccessStrategy(H2Dialect.INSTANCE))
+        .getRepository(AnimeRepository.class, RepositoryFragments.just(
+            new AnimeBatchRepositoryImpl(databaseClient, new AnimeProperties()), new AnimeStreamRepositoryImpl(databaseClient),
+            new AnimeUpdateRepositoryImpl(databaseClient)));
+    AnimeRepository instrumentedRepository = (AnimeRepository) MetricsConfig.repositoryMetricsPostProcessor(meterRegistryProvider)
+        .postProcessAfterInitialization(repository, "animeRepository");
+
+    StepVerifier.create(instrumentedRepository.findById(1))
+        .verifyComplete();
+    StepVerifier.create(instrumentedRepository.findPageAfter(0, 10))
+        .verifyComplete();
+
+    assertEquals(1, count("findById", "SUCCESS"));
+    assertEquals(1, count("findPageAfter", "SUCCESS"));
+  }
+
+  private long count(String method, String state) {
+    return meterRegistry.get(RepositoryMetricsInterceptor.METRIC_NAME)
+        .tag("repository", "AnimeRepository")
+        .tag("method", method)
+        .tag("state", state)
+        .timer()
+        .count();
+  }
+}
@@ -0,0 +1,113 @@
+package dev.springwebflux.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+class RequestBodyLimitFilterTest {
+
+  private static final long MAX_BODY_SIZE = 16;
+
+  RequestBodyLimitFilter requestBodyLimitFilter;
+  AtomicBoolean chainCalled;
+  WebFilterChain readingChain;
+
+  @BeforeEach
+  void setUp() {
+    requestBodyLimitFilter = new RequestBodyLimitFilter(MAX_BODY_SIZE);
+    chainCalled = new AtomicBoolean();
+    readingChain = exchange -> {
+      chainCalled.set(true);
+      return DataBufferUtils.join(exchange.getRequest().getBody())
+          .doOnNext(DataBufferUtils::release)
+          .then();
+    };
+  }
+
+  @Test
+  @DisplayName("SHOULD refuse the request before the chain runs WHEN the declared content length is over the limit")
+  void shouldRefuseTheRequestBeforeTheChainRunsWhenTheDeclaredContentLengthIsOverTheLimit() {
+    MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/animes")
+        .contentType(MediaType.APPLICATION_JSON)
+        .contentLength(MAX_BODY_SIZE + 1)
+        .body("{}"));
+
+    StepVerifier.create(requestBodyLimitFilter.filter(exchange, readingChain))
+        .expectErrorSatisfies(error -> assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, ((ResponseStatusException) error).getStatus()))
+        .verify();
+
+    assertFalse(chainCalled.get());
+  }
+
+  @Test
+  @DisplayName("SHOULD fail reading the body WHEN a chunked body grows over the limit")
+  void shouldFailReadingTheBodyWhenAChunkedBodyGrowsOverTheLimit() {
+    MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/animes")
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(Flux.just(buffer("{\"name\":"), buffer("\"Tensei Shitara\"}"))));
+
+    StepVerifier.create(requestBodyLimitFilter.filter(exchange, readingChain))
+        .expectErrorSatisfies(error -> assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, ((ResponseStatusException) error).getStatus()))
+        .verify();
+  }
+
+  @Test
+  @DisplayName("SHOULD pass the body through WHEN it fits the limit")
+  void shouldPassTheBodyThroughWhenItFitsTheLimit() {
+    MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/animes")
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(Flux.just(buffer("{\"name\":"), buffer("\"ok\"}"))));
+
+    StepVerifier.create(requestBodyLimitFilter.filter(exchange, readingChain))
+        .verifyComplete();
+
+    assertTrue(chainCalled.get());
+  }
+
+  @Test
+  @DisplayName("SHOULD not limit the body WHEN it is streamed to the import route")
+  void shouldNotLimitTheBodyWhenItIsStreamedToTheImportRoute() {
+    MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/animes/import")
+        .contentType(CodecConfig.APPLICATION_NDJSON)
+        .body(Flux.just(buffer("{\"name\":\"Tensei Shitara\"}\n"), buffer("{\"name\":\"Overlord\"}\n"))));
+
+    StepVerifier.create(requestBodyLimitFilter.filter(exchange, readingChain))
+        .verifyComplete();
+  }
+
+  @Test
+  @DisplayName("SHOULD refuse the request WHEN another route is sent as NDJSON")
+  void shouldRefuseTheRequestWhenAnotherRouteIsSentAsNdjson() {
+    MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/animes/batch")
+        .contentType(CodecConfig.APPLICATION_NDJSON)
+        .contentLength(MAX_BODY_SIZE + 1)
+        .body("{}"));
+
+    StepVerifier.create(requestBodyLimitFilter.filter(exchange, readingChain))
+        .expectErrorSatisfies(error -> assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, ((ResponseStatusException) error).getStatus()))
+        .verify();
+
+    assertFalse(chainCalled.get());
+  }
+
+  private static DataBuffer buffer(String content) {
+    return new DefaultDataBufferFactory().wrap(content.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,144 @@
+package dev.springwebflux.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import dev.springwebflux.config.properties.SqlLogProperties;
+import io.r2dbc.proxy.core.Binding;
+import io.r2dbc.proxy.core.Bindings;
+import io.r2dbc.proxy.core.BoundValue;
+import io.r2dbc.proxy.core.QueryExecutionInfo;
+import io.r2dbc.proxy.core.QueryInfo;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.slf4j.LoggerFactory;
+
+class SqlLogListenerTest {
+
+  private static final String QUERY = "SELECT * FROM anime WHERE id = $1 AND name = $2";
+
+  SqlLogProperties properties;
+  Logger sqlLogger;
+  ListAppender<ILoggingEvent> appender;
+
+  @BeforeEach
+  void setUp() {
+    properties = new SqlLogProperties();
+    properties.setSlowThreshold(Duration.ofMillis(100));
+    properties.setSampleRate(0);
+    sqlLogger = (Logger) LoggerFactory.getLogger("dev.springwebflux.sql");
+    appender = new ListAppender<>();
+    appender.start();
+    sqlLogger.addAppender(appender);
+  }
+
+  @AfterEach
+  void tearDown() {
+    sqlLogger.detachAppender(appender);
+  }
+
+  @Test
+  @DisplayName("SHOULD log a statement at WARN WHEN it ran at least the slow threshold")
+  void shouldLogAStatementAtWarnWhenItRanAtLeastTheSlowThreshold() {
+    SqlLogListener listener = new SqlLogListener(properties);
+
+    listener.afterQuery(execution(Duration.ofMillis(100), QUERY, binding("$1", value(1))));
+    listener.afterQuery(execution(Duration.ofMillis(99), QUERY, binding("$1", value(2))));
+
+    assertEquals(1, appender.list.size());
+    assertEquals(Level.WARN, appender.list.get(0).getLevel());
+    assertTrue(appender.list.get(0).getFormattedMessage().startsWith("Slow query: 100 ms | " + QUERY));
+  }
+
+  @Test
+  @DisplayName("SHOULD log every fast statement at INFO WHEN the sample rate is one")
+  void shouldLogEveryFastStatementAtInfoWhenTheSampleRateIsOne() {
+    properties.setSampleRate(1);
+    SqlLogListener listener = new SqlLogListener(properties);
+
+    listener.afterQuery(execution(Duration.ofMillis(1), QUERY));
+
+    assertEquals(1, appender.list.size());
+    assertEquals(Level.INFO, appender.list.get(0).getLevel());
+    assertEquals("Sampled query: 1 ms | " + QUERY, appender.list.get(0).getFormattedMessage());
+  }
+
+  @Test
+  @DisplayName("SHOULD replace bind values by their type WHEN redaction is on")
+  void shouldReplaceBindValuesByTheirTypeWhenRedactionIsOn() {
+    SqlLogListener listener = new SqlLogListener(properties);
+
+    String message = listener.format(execution(Duration.ofMillis(120), QUERY,
+        binding("$1", value(1)), binding("$2", value("Naruto")), binding("$3", nullValue())));
+
+    assertEquals("120 ms | " + QUERY + " [$1=<Integer>, $2=<String>, $3=null]", message);
+  }
+
+  @Test
+  @DisplayName("SHOULD show bind values and truncate long statements WHEN redaction is off")
+  void shouldShowBindValuesAndTruncateLongStatementsWhenRedactionIsOff() {
+    properties.setRedactBindValues(false);
+    properties.setMaxQueryLength(20);
+    SqlLogListener listener = new SqlLogListener(properties);
+
+    String message = listener.format(execution(Duration.ofMillis(120), QUERY, binding("$1", value(1)), binding("$2", value("Naruto"))));
+
+    assertEquals("120 ms | " + QUERY.substring(0, 20) + "... [$1=1, $2=Naruto]", message);
+  }
+
+  @Test
+  @DisplayName("SHOULD include the failure WHEN the statement failed")
+  void shouldIncludeTheFailureWhenTheStatementFailed() {
+    SqlLogListener listener = new SqlLogListener(properties);
+    QueryExecutionInfo execution = execution(Duration.ofMillis(5), QUERY);
+    Mockito.when(execution.isSuccess()).thenReturn(false);
+    Mockito.when(execution.getThrowable()).thenReturn(new IllegalStateException("database down"));
+
+    assertEquals("5 ms failed: java.lang.IllegalStateException: database down | " + QUERY, listener.format(execution));
+  }
+
+  private static QueryExecutionInfo execution(Duration duration, String query, Binding... indexBindings) {
+    Bindings bindings = Mockito.mock(Bindings.class);
+    Mockito.doReturn(List.of(indexBindings)).when(bindings).getIndexBindings();
+    Mockito.doReturn(Collections.emptyList()).when(bindings).getNamedBindings();
+    QueryInfo queryInfo = Mockito.mock(QueryInfo.class);
+    Mockito.when(queryInfo.getQuery()).thenReturn(query);
+    Mockito.doReturn(indexBindings.length == 0 ? new ArrayList<>() : List.of(bindings)).when(queryInfo).getBindingsList();
+
+    QueryExecutionInfo execution = Mockito.mock(QueryExecutionInfo.class);
+    Mockito.when(execution.getExecuteDuration()).thenReturn(duration);
+    Mockito.when(execution.isSuccess()).thenReturn(true);
+    Mockito.doReturn(List.of(queryInfo)).when(execution).getQueries();
+    return execution;
+  }
+
+  private static Binding binding(String key, BoundValue value) {
+    Binding binding = Mockito.mock(Binding.class);
+    Mockito.doReturn(key).when(binding).getKey();
+    Mockito.when(binding.getBoundValue()).thenReturn(value);
+    return binding;
+  }
+
+  private static BoundValue value(Object value) {
+    BoundValue boundValue = Mockito.mock(BoundValue.class);
+    Mockito.when(boundValue.getValue()).thenReturn(value);
+    return boundValue;
+  }
+
+  private static BoundValue nullValue() {
+    BoundValue boundValue = Mockito.mock(BoundValue.class);
+    Mockito.when(boundValue.isNull()).thenReturn(true);
+    return boundValue;
+  }
+}
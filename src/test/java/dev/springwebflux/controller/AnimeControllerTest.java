@@ -1,9 +1,16 @@
 package dev.springwebflux.controller;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import dev.springwebflux.config.CodecConfig;
 import dev.springwebflux.domain.Anime;
+import dev.springwebflux.domain.AnimeCatalogVersion;
+import dev.springwebflux.domain.AnimeImportProgress;
+import dev.springwebflux.domain.AnimeSuggestion;
 import dev.springwebflux.service.AnimeService;
 import dev.springwebflux.service.impl.AnimeServiceImpl;
 import dev.springwebflux.util.AnimeCreator;
@@ -16,7 +23,14 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.blockhound.BlockHound;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -29,6 +43,7 @@ class AnimeControllerTest {
   AnimeService animeService;
 
   private final Anime anime = AnimeCreator.createValidAnime();
+  private final AnimeCatalogVersion catalogVersion = new AnimeCatalogVersion(1, 1);
 
   @BeforeAll
   static void blockHoundSetup() {
@@ -39,6 +54,7 @@ class AnimeControllerTest {
   void setUp() {
     animeService = Mockito.mock(AnimeServiceImpl.class);
     animeController = new AnimeController(animeService);
+    Mockito.when(animeService.findCatalogVersion()).thenReturn(Mono.just(catalogVersion));
   }
 
   @Test()
@@ -64,16 +80,153 @@ class AnimeControllerTest {
   }
 
   @Test
-  @DisplayName("SHOULD returns Flux of anime")
-  void shouldReturnsFluxOfAnime() {
-    Mockito.when(animeService.findAll()).thenReturn(Flux.just(anime));
+  @DisplayName("SHOULD returns a page of anime")
+  void shouldReturnsAPageOfAnime() {
+    Mockito.when(animeService.findAll(0, 50)).thenReturn(Flux.just(anime));
 
-    StepVerifier.create(animeController.listAll())
+    StepVerifier.create(animeController.listAll(null, 50, exchange()))
+        .expectSubscription()
+        .assertNext(response -> assertFalse(response.getHeaders().containsKey(HttpHeaders.LINK)))
+        .verifyComplete();
+    StepVerifier.create(animeController.listAll(null, 50, exchange()).flatMapMany(ResponseEntity::getBody))
+        .expectSubscription()
+        .expectNext(anime)
+        .verifyComplete();
+  }
+
+  @Test
+  @DisplayName("SHOULD returns a link to the next page WHEN the page is full")
+  void shouldReturnsALinkToTheNextPageWhenThePageIsFull() {
+    Mockito.when(animeService.findAll(0, 1)).thenReturn(Flux.just(anime));
+    Mockito.when(animeService.findAll(anime.getId(), 1)).thenReturn(Flux.empty());
+
+    String nextCursor = AnimeCursor.encode(anime.getId());
+    StepVerifier.create(animeController.listAll(null, 1, exchange()))
+        .expectSubscription()
+        .assertNext(response -> assertEquals(
+            "</animes?cursor=" + nextCursor + "&limit=1>; rel=\"next\"",
+            response.getHeaders().getFirst(HttpHeaders.LINK)))
+        .verifyComplete();
+
+    StepVerifier.create(animeController.listAll(nextCursor, 1, exchange()).flatMapMany(ResponseEntity::getBody))
+        .expectSubscription()
+        .verifyComplete();
+  }
+
+  @Test
+  @DisplayName("SHOULD cap the page size at the server maximum")
+  void shouldCapThePageSizeAtTheServerMaximum() {
+    Mockito.when(animeService.findAll(0, AnimeService.MAX_PAGE_SIZE)).thenReturn(Flux.just(anime));
+
+    StepVerifier.create(animeController.listAll(null, AnimeService.MAX_PAGE_SIZE + 1, exchange()).flatMapMany(ResponseEntity::getBody))
+        .expectSubscription()
+        .expectNext(anime)
+        .verifyComplete();
+  }
+
+  @Test
+  @DisplayName("SHOULD THROW ERROR WHEN the cursor is not valid")
+  void shouldThrowErrorWhenTheCursorIsNotValid() {
+    StepVerifier.create(animeController.listAll("not-a-cursor", 50, exchange()))
+        .expectSubscription()
+        .expectError(ResponseStatusException.class)
+        .verify();
+  }
+
+  @Test
+  @DisplayName("SHOULD stream every anime WHEN NDJSON is accepted")
+  void shouldStreamEveryAnimeWhenNdjsonIsAccepted() {
+    Mockito.when(animeService.streamAll(0)).thenReturn(Flux.just(anime, anime));
+
+    StepVerifier.create(animeController.listAll(null, null, exchange(MockServerHttpRequest.get("/animes").accept(CodecConfig.APPLICATION_NDJSON))))
+        .expectSubscription()
+        .assertNext(response -> assertEquals(CodecConfig.APPLICATION_NDJSON, response.getHeaders().getContentType()))
+        .verifyComplete();
+    StepVerifier.create(animeController.listAll(null, null, exchange(MockServerHttpRequest.get("/animes").accept(CodecConfig.APPLICATION_NDJSON))).flatMapMany(ResponseEntity::getBody))
+        .expectSubscription()
+        .expectNext(anime, anime)
+        .verifyComplete();
+  }
+
+  @Test
+  @DisplayName("SHOULD stop the stream at the limit WHEN NDJSON is accepted with a limit")
+  void shouldStopTheStreamAtTheLimitWhenNdjsonIsAcceptedWithALimit() {
+    Mockito.when(animeService.streamAll(0)).thenReturn(Flux.just(anime, anime));
+
+    StepVerifier.create(animeController.listAll(null, 1, exchange(MockServerHttpRequest.get("/animes").accept(CodecConfig.APPLICATION_NDJSON))).flatMapMany(ResponseEntity::getBody))
+        .expectSubscription()
+        .expectNext(anime)
+        .verifyComplete();
+  }
+
+  @Test
+  @DisplayName("SHOULD returns a page WHEN JSON is preferred over server-sent events")
+  void shouldReturnsAPageWhenJsonIsPreferredOverServerSentEvents() {
+    Mockito.when(animeService.findAll(0, 50)).thenReturn(Flux.just(anime));
+
+    StepVerifier.create(animeController.listAll(null, 50, exchange(MockServerHttpRequest.get("/animes").header(HttpHeaders.ACCEPT, "application/json, text/event-stream;q=0.5"))))
+        .expectSubscription()
+        .assertNext(response -> assertNull(response.getHeaders().getContentType()))
+        .verifyComplete();
+  }
+
+  @Test
+  @DisplayName("SHOULD returns not modified without loading the page WHEN the catalog did not change")
+  void shouldReturnsNotModifiedWithoutLoadingThePageWhenTheCatalogDidNotChange() {
+    String etag = AnimeETags.of(catalogVersion, null, 50);
+
+    StepVerifier.create(animeController.listAll(null, 50, exchange(MockServerHttpRequest.get("/animes").ifNoneMatch(etag))))
+        .expectSubscription()
+        .assertNext(response -> {
+          assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+          assertEquals(etag, response.getHeaders().getETag());
+        })
+        .verifyComplete();
+
+    Mockito.verify(animeService, Mockito.never()).findAll(Mockito.anyInt(), Mockito.anyInt());
+  }
+
+  @Test
+  @DisplayName("SHOULD returns anime matching the search")
+  void shouldReturnsAnimeMatchingTheSearch() {
+    Mockito.when(animeService.search("naru", 20)).thenReturn(Flux.just(anime));
+
+    StepVerifier.create(animeController.search("naru", 20))
         .expectSubscription()
         .expectNext(anime)
         .verifyComplete();
   }
 
+  @Test
+  @DisplayName("SHOULD THROW ERROR WHEN the search is blank")
+  void shouldThrowErrorWhenTheSearchIsBlank() {
+    StepVerifier.create(animeController.search(" ", 20))
+        .expectSubscription()
+        .expectError(ResponseStatusException.class)
+        .verify();
+  }
+
+  @Test
+  @DisplayName("SHOULD returns suggestions for the prefix")
+  void shouldReturnsSuggestionsForThePrefix() {
+    AnimeSuggestion suggestion = new AnimeSuggestion(1, "Naruto");
+    Mockito.when(animeService.suggest("nar", 10)).thenReturn(Flux.just(suggestion));
+
+    StepVerifier.create(animeController.suggest("nar", 10))
+        .expectSubscription()
+        .expectNext(suggestion)
+        .verifyComplete();
+  }
+
+  @Test
+  @DisplayName("SHOULD THROW ERROR WHEN the suggestion prefix is blank")
+  void shouldThrowErrorWhenTheSuggestionPrefixIsBlank() {
+    StepVerifier.create(animeController.suggest("", 10))
+        .expectSubscription()
+        .expectError(ResponseStatusException.class)
+        .verify();
+  }
+
   @Test
   @DisplayName("SHOULD returns Mono with anime when it exists")
   void shouldReturnsMonoWithAnimeWhenItExists() {
@@ -81,7 +234,10 @@ class AnimeControllerTest {
 
     StepVerifier.create(animeController.findById(1))
         .expectSubscription()
-        .expectNext(anime)
+        .assertNext(response -> {
+          assertEquals(anime, response.getBody());
+          assertEquals(AnimeETags.of(anime), response.getHeaders().getETag());
+        })
         .verifyComplete();
   }
 
@@ -109,6 +265,18 @@ class AnimeControllerTest {
         .verifyComplete();
   }
 
+  @Test
+  @DisplayName("SHOULD import an anime stream")
+  void shouldImportAnAnimeStream() {
+    AnimeImportProgress progress = new AnimeImportProgress(0, 2, 2);
+    Mockito.when(animeService.importAll(Mockito.any())).thenReturn(Flux.just(progress));
+
+    StepVerifier.create(animeController.importBatch(Flux.just(anime, anime)))
+        .expectSubscription()
+        .expectNext(progress)
+        .verifyComplete();
+  }
+
   @Test
   @DisplayName("SHOULD delete an anime")
   void shouldDeleteAnAnime() {
@@ -124,9 +292,41 @@ class AnimeControllerTest {
   void shouldUpdateAnAnime() {
     Mockito.when(animeService.update(Mockito.any(Anime.class))).thenReturn(Mono.empty());
 
-    StepVerifier.create(animeController.update(1, AnimeCreator.createValidUpdateAnime()))
+    StepVerifier.create(animeController.update(1, AnimeCreator.createValidUpdateAnime(), null))
+        .expectSubscription()
+        .verifyComplete();
+  }
+
+  @Test
+  @DisplayName("SHOULD update an anime at the version given by If-Match")
+  void shouldUpdateAnAnimeAtTheVersionGivenByIfMatch() {
+    Anime animeToBeUpdated = AnimeCreator.createValidUpdateAnime();
+    Mockito.when(animeService.update(Mockito.any(Anime.class))).thenReturn(Mono.empty());
+
+    StepVerifier.create(animeController.update(1, animeToBeUpdated, AnimeETags.of(animeToBeUpdated.withVersion(3L))))
         .expectSubscription()
         .verifyComplete();
+
+    Mockito.verify(animeService).update(animeToBeUpdated.withId(1).withVersion(3L));
+  }
+
+  @Test
+  @DisplayName("SHOULD THROW ERROR WHEN If-Match identifies another anime")
+  void shouldThrowErrorWhenIfMatchIdentifiesAnotherAnime() {
+    StepVerifier.create(animeController.update(1, AnimeCreator.createValidUpdateAnime(), "W/\"2-3\""))
+        .expectSubscription()
+        .expectErrorSatisfies(throwable -> assertEquals(HttpStatus.PRECONDITION_FAILED, ((ResponseStatusException) throwable).getStatus()))
+        .verify();
+
+    Mockito.verify(animeService, Mockito.never()).update(Mockito.any(Anime.class));
+  }
+
+  private ServerWebExchange exchange() {
+    return exchange(MockServerHttpRequest.get("/animes"));
+  }
+
+  private ServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+    return MockServerWebExchange.from(request);
   }
 
-}
\ No newline at end of file
+}
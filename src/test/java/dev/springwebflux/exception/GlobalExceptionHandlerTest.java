@@ -0,0 +1,103 @@
+package dev.springwebflux.exception;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Collections;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ResourceProperties;
+import org.springframework.boot.web.error.ErrorAttributeOptions;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.ServerRequest;
+
+class GlobalExceptionHandlerTest {
+
+  private static final TypeReference<Map<String, Object>> MAP = new TypeReference<Map<String, Object>>() {
+  };
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final CustomAttributes customAttributes = new CustomAttributes();
+  private GenericApplicationContext applicationContext;
+  private GlobalExceptionHandler exceptionHandler;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    applicationContext = new GenericApplicationContext();
+    applicationContext.refresh();
+    exceptionHandler = new GlobalExceptionHandler(customAttributes, new ResourceProperties(),
+        applicationContext, ServerCodecConfigurer.create());
+    exceptionHandler.setViewResolvers(Collections.emptyList());
+    exceptionHandler.afterPropertiesSet();
+  }
+
+  @AfterEach
+  void tearDown() {
+    applicationContext.close();
+  }
+
+  @Test
+  @DisplayName("SHOULD write the same fields as CustomAttributes WHEN the error body is pre-serialized")
+  void shouldWriteTheSameFieldsAsCustomAttributesWhenTheErrorBodyIsPreSerialized() throws Exception {
+    StacklessResponseStatusException error = new StacklessResponseStatusException(HttpStatus.NOT_FOUND, "Anime \"42\" not found");
+    MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/animes/42"));
+
+    exceptionHandler.handle(exchange, error).block();
+
+    assertEquals(HttpStatus.NOT_FOUND, exchange.getResponse().getStatusCode());
+    assertEquals(MediaType.APPLICATION_JSON, exchange.getResponse().getHeaders().getContentType());
+    Map<String, Object> written = objectMapper.readValue(exchange.getResponse().getBodyAsString().block(), MAP);
+    Map<String, Object> expected = errorAttributes(exchange, error);
+    assertNotNull(written.remove("timestamp"));
+    expected.remove("timestamp");
+    assertEquals(expected, written);
+  }
+
+  @Test
+  @DisplayName("SHOULD write the same body twice WHEN the same error happens again")
+  void shouldWriteTheSameBodyTwiceWhenTheSameErrorHappensAgain() throws Exception {
+    for (int i = 0; i < 2; i++) {
+      MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/animes/42"));
+      exceptionHandler.handle(exchange, new StacklessResponseStatusException(HttpStatus.NOT_FOUND, "Anime not found")).block();
+
+      Map<String, Object> written = objectMapper.readValue(exchange.getResponse().getBodyAsString().block(), MAP);
+      assertEquals(404, written.get("status"));
+      assertEquals("404 NOT_FOUND \"Anime not found\"", written.get("message"));
+      assertEquals("A ResponseStatusException happened", written.get("developerMessage"));
+    }
+  }
+
+  @Test
+  @DisplayName("SHOULD still include the stack trace WHEN trace is requested")
+  void shouldStillIncludeTheStackTraceWhenTraceIsRequested() throws Exception {
+    MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/animes/42?trace=true"));
+
+    exceptionHandler.handle(exchange, new StacklessResponseStatusException(HttpStatus.NOT_FOUND, "Anime not found")).block();
+
+    Map<String, Object> written = objectMapper.readValue(exchange.getResponse().getBodyAsString().block(), MAP);
+    assertEquals(404, written.get("status"));
+    assertTrue(written.containsKey("trace"));
+  }
+
+  private Map<String, Object> errorAttributes(MockServerWebExchange exchange, Throwable error) throws Exception {
+    MockServerWebExchange sameRequest = MockServerWebExchange.from(MockServerHttpRequest.get(exchange.getRequest().getURI().toString()));
+    customAttributes.storeErrorInformation(error, sameRequest);
+    ServerRequest request = ServerRequest.create(sameRequest, HandlerStrategies.withDefaults().messageReaders());
+    Map<String, Object> attributes = customAttributes.getErrorAttributes(request, ErrorAttributeOptions.defaults());
+    // each exchange gets its own id, round trip the rest through JSON to compare like with like
+    attributes.put("requestId", exchange.getRequest().getId());
+    return objectMapper.readValue(objectMapper.writeValueAsString(attributes), MAP);
+  }
+}
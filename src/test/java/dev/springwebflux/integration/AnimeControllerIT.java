@@ -3,7 +3,10 @@ package dev.springwebflux.integration;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import dev.springwebflux.config.CodecConfig;
 import dev.springwebflux.domain.Anime;
+import dev.springwebflux.domain.AnimeCatalogVersion;
+import dev.springwebflux.domain.AnimeImportProgress;
 import dev.springwebflux.repository.AnimeRepository;
 import dev.springwebflux.util.AnimeCreator;
 import java.time.Duration;
@@ -19,6 +22,7 @@ import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWeb
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithUserDetails;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
@@ -27,6 +31,7 @@ import org.springframework.web.reactive.function.BodyInserters;
 import reactor.blockhound.BlockHound;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
 @SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
 @ExtendWith(SpringExtension.class)
@@ -76,7 +81,8 @@ public class AnimeControllerIT {
   @WithUserDetails(ADMIN_USER)
   @DisplayName("SHOULD returns Flux of anime when user is successfully authenticated and has role ADMIN")
   void shouldReturnsFluxOfAnimeWhenUserIsSuccessfullyAuthenticatedAndHaveTheRoleAdmin2() {
-    Mockito.when(animeRepository.findAll()).thenReturn(Flux.just(anime));
+    Mockito.when(animeRepository.findPageAfter(Mockito.anyInt(), Mockito.anyInt())).thenReturn(Flux.just(anime));
+    Mockito.when(animeRepository.findCatalogVersion()).thenReturn(Mono.just(new AnimeCatalogVersion(1, 1)));
 
     client
         .get()
@@ -92,7 +98,8 @@ public class AnimeControllerIT {
   @WithUserDetails(ADMIN_USER)
   @DisplayName("SHOULD returns Flux of anime when user is successfully authenticated and has role ADMIN")
   void shouldReturnsFluxOfAnimeWhenUserIsSuccessfullyAuthenticatedAndHaveTheRoleAdmin() {
-    Mockito.when(animeRepository.findAll()).thenReturn(Flux.just(anime));
+    Mockito.when(animeRepository.findPageAfter(Mockito.anyInt(), Mockito.anyInt())).thenReturn(Flux.just(anime));
+    Mockito.when(animeRepository.findCatalogVersion()).thenReturn(Mono.just(new AnimeCatalogVersion(1, 1)));
 
     client
         .get()
@@ -104,10 +111,31 @@ public class AnimeControllerIT {
         .jsonPath("$.[0].name").isEqualTo(anime.getName());
   }
 
+  @Test
+  @WithUserDetails(ADMIN_USER)
+  @DisplayName("SHOULD stream anime as NDJSON when user is successfully authenticated and has role ADMIN")
+  void shouldStreamAnimeAsNdjsonWhenUserIsSuccessfullyAuthenticatedAndHaveTheRoleAdmin() {
+    Mockito.when(animeRepository.findAllAfter(Mockito.anyInt(), Mockito.anyInt())).thenReturn(Flux.just(anime, anime));
+
+    client
+        .get()
+        .uri("/animes")
+        .accept(CodecConfig.APPLICATION_NDJSON)
+        .exchange()
+        .expectStatus().isOk()
+        .expectHeader().contentTypeCompatibleWith(CodecConfig.APPLICATION_NDJSON)
+        .returnResult(Anime.class)
+        .getResponseBody()
+        .as(StepVerifier::create)
+        .expectNext(anime, anime)
+        .verifyComplete();
+  }
+
   @Test
   @DisplayName("SHOULD returns unauthorized when user is not authenticated")
   void shouldReturnsUnauthorizedWhenUserIsNotAuthenticated() {
-    Mockito.when(animeRepository.findAll()).thenReturn(Flux.just(anime));
+    Mockito.when(animeRepository.findPageAfter(Mockito.anyInt(), Mockito.anyInt())).thenReturn(Flux.just(anime));
+    Mockito.when(animeRepository.findCatalogVersion()).thenReturn(Mono.just(new AnimeCatalogVersion(1, 1)));
 
     client
         .get()
@@ -121,7 +149,8 @@ public class AnimeControllerIT {
   @DisplayName("SHOULD returns forbidden when user is successfully authenticated and does not have the role ADMIN")
   void shouldReturnsForbiddenWhenUserIsSuccessfullyAuthenticatedAndDoesNotHaveTheRoleAdmin() {
 
-    Mockito.when(animeRepository.findAll()).thenReturn(Flux.just(anime));
+    Mockito.when(animeRepository.findPageAfter(Mockito.anyInt(), Mockito.anyInt())).thenReturn(Flux.just(anime));
+    Mockito.when(animeRepository.findCatalogVersion()).thenReturn(Mono.just(new AnimeCatalogVersion(1, 1)));
 
     client
         .get()
@@ -145,6 +174,30 @@ public class AnimeControllerIT {
         .isEqualTo(anime);
   }
 
+  @Test
+  @WithUserDetails(REGULAR_USER)
+  @DisplayName("SHOULD returns not modified when the anime did not change since the ETag the client holds")
+  void shouldReturnsNotModifiedWhenTheAnimeDidNotChange() {
+    Mockito.when(animeRepository.findById(Mockito.anyInt())).thenReturn(Mono.just(anime));
+
+    String etag = client
+        .get()
+        .uri("/animes/{id}", 1)
+        .exchange()
+        .expectStatus().isOk()
+        .returnResult(Anime.class)
+        .getResponseHeaders()
+        .getETag();
+
+    client
+        .get()
+        .uri("/animes/{id}", 1)
+        .ifNoneMatch(etag)
+        .exchange()
+        .expectStatus().isNotModified()
+        .expectBody().isEmpty();
+  }
+
   @Test
   @WithUserDetails(REGULAR_USER)
   @DisplayName("SHOULD THROW ERROR when anime does not exist and user is successfully authenticated and has role USER")
@@ -166,7 +219,7 @@ public class AnimeControllerIT {
   @DisplayName("SHOULD create an anime when user is successfully authenticated and has role ADMIN")
   void shouldCreateAnAnime() {
     Anime animeToBeSaved = AnimeCreator.createAnimeToBeSaved();
-    Mockito.when(animeRepository.save(Mockito.any(Anime.class))).thenReturn(Mono.just(anime));
+    Mockito.when(animeRepository.insertAll(Mockito.anyList())).thenReturn(Flux.just(anime));
 
     client
         .post()
@@ -179,12 +232,29 @@ public class AnimeControllerIT {
         .isEqualTo(anime);
   }
 
+  @Test
+  @WithUserDetails(ADMIN_USER)
+  @DisplayName("SHOULD create a new anime WHEN the body carries an id and a version and user is successfully authenticated and has role ADMIN")
+  void shouldCreateANewAnimeWhenTheBodyCarriesAnIdAndAVersion() {
+    Mockito.when(animeRepository.insertAll(Mockito.anyList())).thenReturn(Flux.just(anime));
+
+    client
+        .post()
+        .uri("/animes")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue("{\"id\":5,\"name\":\"Naruto\",\"version\":7}")
+        .exchange()
+        .expectStatus().isCreated();
+
+    Mockito.verify(animeRepository).insertAll(List.of(AnimeCreator.createAnimeToBeSaved()));
+  }
+
   @Test
   @WithUserDetails(ADMIN_USER)
   @DisplayName("SHOULD throw error when trying create an anime with empty name and user is successfully authenticated and has role ADMIN")
   void shouldThrowErrorWhenTryingCreateAnAnimeWithEmptyName() {
     Anime animeToBeSaved = AnimeCreator.createAnimeToBeSaved().withName("");
-    Mockito.when(animeRepository.save(Mockito.any(Anime.class))).thenReturn(Mono.just(anime));
+    Mockito.when(animeRepository.insertAll(Mockito.anyList())).thenReturn(Flux.just(anime));
 
     client
         .post()
@@ -202,7 +272,7 @@ public class AnimeControllerIT {
   @DisplayName("SHOULD save an anime list when user is successfully authenticated and has role ADMIN")
   void shouldSaveAnAnimeList() {
     Anime animeToBeSaved = AnimeCreator.createAnimeToBeSaved();
-    Mockito.when(animeRepository.saveAll(Mockito.anyList())).thenReturn(Flux.just(anime, anime));
+    Mockito.when(animeRepository.insertAll(Mockito.anyList())).thenReturn(Flux.just(anime, anime));
 
     client
         .post()
@@ -221,7 +291,7 @@ public class AnimeControllerIT {
   @DisplayName("SHOULD throw error when one of the objects in the anime list to be saved contains a null or empty name and user is successfully authenticated and has role ADMIN")
   void shouldThrowErrorWhenOneOfTheObjectsInTheAnimeListToBeSavedContainsANullOrEmptyName() {
     Anime animeToBeSaved = AnimeCreator.createAnimeToBeSaved();
-    Mockito.when(animeRepository.saveAll(Mockito.anyList())).thenReturn(Flux.just(anime, anime.withName("")));
+    Mockito.when(animeRepository.insertAll(Mockito.anyList())).thenReturn(Flux.just(anime, anime.withName("")));
 
     client
         .post()
@@ -232,15 +302,38 @@ public class AnimeControllerIT {
         .expectStatus().isBadRequest()
         .expectBody()
         .jsonPath("$.status").isEqualTo(400)
-        .jsonPath("$.developerMessage").isEqualTo("A ResponseStatusException happened");
+        .jsonPath("$.developerMessage").isEqualTo("A ResponseStatusException happened")
+        .jsonPath("$.errorCount").isEqualTo(1)
+        .jsonPath("$.errors[0].index").isEqualTo(1)
+        .jsonPath("$.errors[0].field").isEqualTo("name");
+  }
+
+  @Test
+  @WithUserDetails(ADMIN_USER)
+  @DisplayName("SHOULD import an NDJSON anime stream when user is successfully authenticated and has role ADMIN")
+  void shouldImportAnNdjsonAnimeStream() {
+    Mockito.when(animeRepository.insertAll(Mockito.anyList())).thenReturn(Flux.just(anime, anime));
+
+    client
+        .post()
+        .uri("/animes/import")
+        .contentType(CodecConfig.APPLICATION_NDJSON)
+        .accept(CodecConfig.APPLICATION_NDJSON)
+        .bodyValue("{\"name\":\"Naruto\"}\n{\"name\":\"Naruto\"}\n")
+        .exchange()
+        .expectStatus().isOk()
+        .returnResult(AnimeImportProgress.class)
+        .getResponseBody()
+        .as(StepVerifier::create)
+        .expectNext(new AnimeImportProgress(0, 2, 2))
+        .verifyComplete();
   }
 
   @Test
   @WithUserDetails(ADMIN_USER)
   @DisplayName("SHOULD delete an anime when user is successfully authenticated and has role ADMIN")
   void shouldDeleteAnAnime() {
-    Mockito.when(animeRepository.findById(Mockito.anyInt())).thenReturn(Mono.just(anime));
-    Mockito.when(animeRepository.delete(Mockito.any(Anime.class))).thenReturn(Mono.empty());
+    Mockito.when(animeRepository.deleteAnimeById(Mockito.anyInt())).thenReturn(Mono.just(1));
 
     client
         .delete()
@@ -253,7 +346,7 @@ public class AnimeControllerIT {
   @WithUserDetails(ADMIN_USER)
   @DisplayName("SHOULD throw an error when trying delete an anime that does not exist and user is successfully authenticated and has role ADMIN")
   void shouldThrowAnErrorWhenTryingDeleteAnAnimeThatDoesNotExist() {
-    Mockito.when(animeRepository.findById(Mockito.anyInt())).thenReturn(Mono.empty());
+    Mockito.when(animeRepository.deleteAnimeById(Mockito.anyInt())).thenReturn(Mono.just(0));
 
     client
         .delete()
@@ -269,8 +362,7 @@ public class AnimeControllerIT {
   @WithUserDetails(ADMIN_USER)
   @DisplayName("SHOULD update an anime when user is successfully authenticated and has role ADMIN")
   void shouldUpdateAnAnime() {
-    Mockito.when(animeRepository.findById(Mockito.anyInt())).thenReturn(Mono.just(anime));
-    Mockito.when(animeRepository.save(Mockito.any(Anime.class))).thenReturn(Mono.just(AnimeCreator.createValidUpdateAnime()));
+    Mockito.when(animeRepository.updateName(Mockito.anyInt(), Mockito.anyString())).thenReturn(Mono.just(4L));
 
     client
         .put()
@@ -281,11 +373,31 @@ public class AnimeControllerIT {
         .expectStatus().isNoContent();
   }
 
+  @Test
+  @WithUserDetails(ADMIN_USER)
+  @DisplayName("SHOULD return conflict when the If-Match version is stale and user is successfully authenticated and has role ADMIN")
+  void shouldReturnConflictWhenTheIfMatchVersionIsStale() {
+    Mockito.when(animeRepository.updateNameIfVersion(Mockito.anyInt(), Mockito.anyString(), Mockito.anyLong())).thenReturn(Mono.empty());
+    Mockito.when(animeRepository.existsById(Mockito.anyInt())).thenReturn(Mono.just(true));
+
+    client
+        .put()
+        .uri("/animes/{id}", 1)
+        .contentType(MediaType.APPLICATION_JSON)
+        .ifMatch("W/\"1-3\"")
+        .body(BodyInserters.fromValue(anime))
+        .exchange()
+        .expectStatus().isEqualTo(HttpStatus.CONFLICT)
+        .expectBody()
+        .jsonPath("$.status").isEqualTo(409)
+        .jsonPath("$.developerMessage").isEqualTo("An OptimisticLockingFailureException happened");
+  }
+
   @Test
   @WithUserDetails(ADMIN_USER)
   @DisplayName("SHOULD throw an error when trying update an anime that does not exist and user is successfully authenticated and has role ADMIN")
   void shouldThrowAnErrorWhenTryingUpdateAnAnimeThatDoesNotExist() {
-    Mockito.when(animeRepository.findById(Mockito.anyInt())).thenReturn(Mono.empty());
+    Mockito.when(animeRepository.updateName(Mockito.anyInt(), Mockito.anyString())).thenReturn(Mono.empty());
 
     client
         .put()
@@ -0,0 +1,291 @@
+package dev.springwebflux.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.springwebflux.SpringWebfluxEssentialsApplication;
+import dev.springwebflux.domain.Anime;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Open model load test for {@code /animes}. Boots the application with the {@code loadtest} profile
+ * against a seeded in-memory H2 database, then sends a fixed number of requests per second with a
+ * weighted mix of reads and writes, whatever the response times are. Latency is measured from the
+ * moment a request was due, not from when it was sent, so a slow server cannot hide its queueing.
+ *
+ * <p>The server runs with the production {@code application.yml} from the main resources, not the
+ * one the tests use, with {@code application-loadtest.yml} on top. Run with
+ * {@code mvn -P loadtest verify}. Tune it with {@code -Dloadtest.rate}, {@code -Dloadtest.warmup}
+ * and {@code -Dloadtest.duration}. The report is printed and written to {@code loadtest.result}.
+ */
+@Slf4j
+public class AnimeLoadTest {
+
+  // the test classpath has its own application.yml, so the shipped one is named explicitly
+  private static final String DEFAULT_APPLICATION_CONFIG = "file:target/classes/application.yml";
+  private static final String LOADTEST_CONFIG = "classpath:/application-loadtest.yml";
+  private static final int SEEDED_ANIMES = 10_000;
+  private static final Duration TICK = Duration.ofMillis(1);
+  private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+  private static final double[] PERCENTILES = {0.5, 0.9, 0.99, 0.999};
+  private static final Duration[] LATENCY_BUCKETS = {
+      Duration.ofMillis(1), Duration.ofMillis(2), Duration.ofMillis(5), Duration.ofMillis(10),
+      Duration.ofMillis(25), Duration.ofMillis(50), Duration.ofMillis(100), Duration.ofMillis(250),
+      Duration.ofMillis(500), Duration.ofSeconds(1), Duration.ofSeconds(5)};
+
+  private final WebClient webClient;
+  private final int rate;
+  private final Queue<Integer> createdIds = new ConcurrentLinkedQueue<>();
+
+  AnimeLoadTest(WebClient webClient, int rate) {
+    this.webClient = webClient;
+    this.rate = rate;
+  }
+
+  public static void main(String[] args) throws IOException {
+    int rate = Integer.getInteger("loadtest.rate", 200);
+    Duration warmup = Duration.parse("PT" + System.getProperty("loadtest.warmup", "10s"));
+    Duration duration = Duration.parse("PT" + System.getProperty("loadtest.duration", "60s"));
+    File result = new File(System.getProperty("loadtest.result", "target/loadtest-result.json"));
+    String applicationConfig = System.getProperty("loadtest.config", DEFAULT_APPLICATION_CONFIG);
+
+    ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringWebfluxEssentialsApplication.class)
+        .profiles("loadtest")
+        .properties("spring.config.location=" + applicationConfig + "," + LOADTEST_CONFIG)
+        .run(args);
+    try {
+      int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+      WebClient webClient = WebClient.builder()
+          .baseUrl("http://localhost:" + port + "/animes")
+          .defaultHeaders(headers -> headers.setBasicAuth("wall", "devwall"))
+          .build();
+      AnimeLoadTest loadTest = new AnimeLoadTest(webClient, rate);
+
+      log.info("Warming up at {} requests/s for {}", rate, warmup);
+      loadTest.drive(warmup);
+      log.info("Measuring at {} requests/s for {}", rate, duration);
+      Map<String, Object> report = loadTest.drive(duration);
+
+      ObjectMapper objectMapper = new ObjectMapper();
+      System.out.println(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(report));
+      result.getParentFile().mkdirs();
+      objectMapper.writerWithDefaultPrettyPrinter().writeValue(result, report);
+      log.info("Report written to {}", result.getAbsolutePath());
+    } finally {
+      context.close();
+    }
+  }
+
+  Map<String, Object> drive(Duration duration) {
+    MeterRegistry registry = new SimpleMeterRegistry();
+    Map<Operation, Timer> latencies = new EnumMap<>(Operation.class);
+    for (Operation operation : Operation.values())
+      latencies.put(operation, latencyTimer(registry, operation, duration));
+
+    long total = duration.toMillis() * rate / 1_000;
+    long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+    long start = System.nanoTime();
+    AtomicLong issued = new AtomicLong();
+
+    Flux.interval(TICK)
+        .onBackpressureDrop()
+        .takeWhile(tick -> issued.get() < total)
+        .concatMapIterable(tick -> {
+          // every request that became due since the last tick, so a late tick never lowers the rate
+          long due = Math.min(total, (System.nanoTime() - start) / intervalNanos + 1);
+          long from = issued.getAndSet(due);
+          return () -> LongStream.range(from, due).iterator();
+        })
+        .flatMap(request -> send(Operation.pick(), start + request * intervalNanos, latencies, registry), Integer.MAX_VALUE)
+        .then()
+        .block(duration.plus(DRAIN_TIMEOUT));
+
+    double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+    Map<String, Object> report = new LinkedHashMap<>();
+    report.put("targetRate", rate);
+    report.put("achievedRate", total / elapsedSeconds);
+    report.put("requests", total);
+    Map<String, Object> operations = new LinkedHashMap<>();
+    latencies.forEach((operation, timer) -> operations.put(operation.name(), summarize(registry, operation, timer)));
+    report.put("operations", operations);
+    return report;
+  }
+
+  private Mono<Void> send(Operation operation, long dueAt, Map<Operation, Timer> latencies, MeterRegistry registry) {
+    return operation.request.apply(this)
+        .map(Outcome::of)
+        .onErrorResume(error -> Mono.just(Outcome.TRANSPORT_ERROR))
+        .doOnNext(outcome -> {
+          latencies.get(operation).record(System.nanoTime() - dueAt, TimeUnit.NANOSECONDS);
+          outcomeCounter(registry, operation, outcome).increment();
+        })
+        .then();
+  }
+
+  private Mono<Integer> getById() {
+    return webClient.get().uri("/{id}", randomSeededId())
+        .exchange()
+        .flatMap(AnimeLoadTest::discardBody);
+  }
+
+  private Mono<Integer> getPage() {
+    return webClient.get().uri("?limit=50")
+        .accept(MediaType.APPLICATION_JSON)
+        .exchange()
+        .flatMap(AnimeLoadTest::discardBody);
+  }
+
+  private Mono<Integer> suggest() {
+    return webClient.get().uri("/suggest?prefix={prefix}", "Anime " + ThreadLocalRandom.current().nextInt(1, 100))
+        .exchange()
+        .flatMap(AnimeLoadTest::discardBody);
+  }
+
+  private Mono<Integer> create() {
+    return webClient.post()
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(Anime.builder().name("Load test " + ThreadLocalRandom.current().nextInt()).build())
+        .exchange()
+        .flatMap(response -> response.bodyToMono(Anime.class)
+            .doOnNext(created -> createdIds.add(created.getId()))
+            .then(Mono.just(response.rawStatusCode())));
+  }
+
+  private Mono<Integer> update() {
+    return webClient.put().uri("/{id}", randomSeededId())
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(Anime.builder().name("Updated " + ThreadLocalRandom.current().nextInt()).build())
+        .exchange()
+        .flatMap(AnimeLoadTest::discardBody);
+  }
+
+  private Mono<Integer> delete() {
+    // only rows created by this run are deleted, so reads and updates on seeded ids never 404
+    Integer id = createdIds.poll();
+    if (id == null)
+      return create();
+    return webClient.delete().uri("/{id}", id)
+        .exchange()
+        .flatMap(AnimeLoadTest::discardBody);
+  }
+
+  private static Mono<Integer> discardBody(ClientResponse response) {
+    return response.releaseBody().then(Mono.just(response.rawStatusCode()));
+  }
+
+  private static int randomSeededId() {
+    return ThreadLocalRandom.current().nextInt(1, SEEDED_ANIMES + 1);
+  }
+
+  private static Timer latencyTimer(MeterRegistry registry, Operation operation, Duration duration) {
+    return Timer.builder("loadtest.latency")
+        .tag("operation", operation.name())
+        .publishPercentiles(PERCENTILES)
+        .serviceLevelObjectives(LATENCY_BUCKETS)
+        // one window over the whole phase instead of the default rotating two minutes
+        .distributionStatisticExpiry(duration.plus(DRAIN_TIMEOUT).multipliedBy(2))
+        .distributionStatisticBufferLength(1)
+        .register(registry);
+  }
+
+  private static Counter outcomeCounter(MeterRegistry registry, Operation operation, Outcome outcome) {
+    return Counter.builder("loadtest.requests")
+        .tag("operation", operation.name())
+        .tag("outcome", outcome.name())
+        .register(registry);
+  }
+
+  private static Map<String, Object> summarize(MeterRegistry registry, Operation operation, Timer timer) {
+    HistogramSnapshot snapshot = timer.takeSnapshot();
+    Map<String, Object> summary = new LinkedHashMap<>();
+    long count = snapshot.count();
+    summary.put("count", count);
+
+    Map<String, Object> outcomes = new LinkedHashMap<>();
+    long failed = 0;
+    for (Outcome outcome : Outcome.values()) {
+      long outcomeCount = (long) outcomeCounter(registry, operation, outcome).count();
+      outcomes.put(outcome.name(), outcomeCount);
+      if (outcome != Outcome.SUCCESS)
+        failed += outcomeCount;
+    }
+    summary.put("outcomes", outcomes);
+    summary.put("errorRate", count == 0 ? 0.0 : (double) failed / count);
+
+    Map<String, Object> percentiles = new LinkedHashMap<>();
+    for (ValueAtPercentile percentile : snapshot.percentileValues())
+      percentiles.put("p" + percentile.percentile() * 100, percentile.value(TimeUnit.MILLISECONDS));
+    percentiles.put("max", snapshot.max(TimeUnit.MILLISECONDS));
+    summary.put("latencyMillis", percentiles);
+
+    Map<String, Object> histogram = new LinkedHashMap<>();
+    for (CountAtBucket bucket : snapshot.histogramCounts())
+      histogram.put("le " + bucket.bucket(TimeUnit.MILLISECONDS) + " ms", (long) bucket.count());
+    summary.put("cumulativeHistogram", histogram);
+    return summary;
+  }
+
+  private enum Operation {
+    GET_BY_ID(50, AnimeLoadTest::getById),
+    GET_PAGE(15, AnimeLoadTest::getPage),
+    SUGGEST(10, AnimeLoadTest::suggest),
+    CREATE(10, AnimeLoadTest::create),
+    UPDATE(10, AnimeLoadTest::update),
+    DELETE(5, AnimeLoadTest::delete);
+
+    private static final int TOTAL_WEIGHT = 100;
+
+    private final int weight;
+    private final Function<AnimeLoadTest, Mono<Integer>> request;
+
+    Operation(int weight, Function<AnimeLoadTest, Mono<Integer>> request) {
+      this.weight = weight;
+      this.request = request;
+    }
+
+    static Operation pick() {
+      int roll = ThreadLocalRandom.current().nextInt(TOTAL_WEIGHT);
+      for (Operation operation : values()) {
+        roll -= operation.weight;
+        if (roll < 0)
+          return operation;
+      }
+      return GET_BY_ID;
+    }
+  }
+
+  private enum Outcome {
+    SUCCESS, CLIENT_ERROR, SERVER_ERROR, TRANSPORT_ERROR;
+
+    static Outcome of(int status) {
+      if (status >= 500)
+        return SERVER_ERROR;
+      return status >= 400 ? CLIENT_ERROR : SUCCESS;
+    }
+  }
+}
@@ -0,0 +1,26 @@
+package dev.springwebflux.loadtest;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.r2dbc.connectionfactory.init.ConnectionFactoryInitializer;
+import org.springframework.data.r2dbc.connectionfactory.init.ResourceDatabasePopulator;
+
+/**
+ * Creates and seeds the in-memory H2 database the {@code loadtest} profile points
+ * {@code spring.r2dbc.url} at.
+ */
+@Configuration
+@Profile("loadtest")
+public class LoadTestDatabaseConfig {
+
+  @Bean
+  public ConnectionFactoryInitializer loadTestDatabaseInitializer(ConnectionFactory connectionFactory) {
+    ConnectionFactoryInitializer initializer = new ConnectionFactoryInitializer();
+    initializer.setConnectionFactory(connectionFactory);
+    initializer.setDatabasePopulator(new ResourceDatabasePopulator(new ClassPathResource("loadtest/schema-h2.sql")));
+    return initializer;
+  }
+}
@@ -0,0 +1,40 @@
+package dev.springwebflux.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import dev.springwebflux.domain.Anime;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class AnimeBatchRepositoryImplTest {
+
+  @Test
+  @DisplayName("SHOULD match generated rows to the inputs by name WHEN they come back in another order")
+  void shouldMatchGeneratedRowsToTheInputsByNameWhenTheyComeBackInAnotherOrder() {
+    List<Anime> chunk = List.of(anime("Naruto"), anime("Overlord"), anime("Naruto"));
+    List<Anime> generated = List.of(row(3, "Naruto", 30), row(2, "Overlord", 20), row(1, "Naruto", 10));
+
+    List<Anime> saved = AnimeBatchRepositoryImpl.withGeneratedColumns(chunk, generated);
+
+    assertEquals(List.of(row(3, "Naruto", 30), row(2, "Overlord", 20), row(1, "Naruto", 10)), saved);
+  }
+
+  @Test
+  @DisplayName("SHOULD fail WHEN a generated row does not belong to any input")
+  void shouldFailWhenAGeneratedRowDoesNotBelongToAnyInput() {
+    List<Anime> chunk = List.of(anime("Naruto"), anime("Overlord"));
+    List<Anime> generated = List.of(row(1, "Naruto", 10), row(2, "Naruto", 20));
+
+    assertThrows(IllegalStateException.class, () -> AnimeBatchRepositoryImpl.withGeneratedColumns(chunk, generated));
+  }
+
+  private static Anime anime(String name) {
+    return Anime.builder().name(name).build();
+  }
+
+  private static Anime row(int id, String name, long version) {
+    return Anime.builder().id(id).name(name).version(version).build();
+  }
+}
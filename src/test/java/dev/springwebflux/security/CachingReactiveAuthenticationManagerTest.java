@@ -0,0 +1,107 @@
+package dev.springwebflux.security;
+
+import dev.springwebflux.config.properties.AuthProperties;
+import dev.springwebflux.domain.UserLogin;
+import dev.springwebflux.util.UserLoginCreator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import reactor.blockhound.BlockHound;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(SpringExtension.class)
+class CachingReactiveAuthenticationManagerTest {
+
+  private static final String PASSWORD = "devwall";
+
+  CachingReactiveAuthenticationManager authenticationManager;
+  ReactiveUserDetailsService userDetailsService;
+  PasswordEncoder passwordEncoder;
+
+  private final UserLogin userLogin = UserLoginCreator.createAdminUser();
+
+  @BeforeAll
+  static void blockHoundSetup() {
+    BlockHound.install();
+  }
+
+  @BeforeEach
+  void setUp() {
+    userDetailsService = Mockito.mock(ReactiveUserDetailsService.class);
+    passwordEncoder = Mockito.mock(PasswordEncoder.class);
+    authenticationManager = new CachingReactiveAuthenticationManager(userDetailsService, passwordEncoder, new AuthProperties());
+    Mockito.when(userDetailsService.findByUsername(userLogin.getUsername())).thenReturn(Mono.just(userLogin));
+    Mockito.when(userDetailsService.findByUsername("unknown")).thenReturn(Mono.empty());
+  }
+
+  @AfterEach
+  void tearDown() {
+    authenticationManager.destroy();
+  }
+
+  @Test
+  @DisplayName("SHOULD match the password only once WHEN the same credentials are presented twice")
+  void shouldMatchThePasswordOnlyOnceWhenTheSameCredentialsArePresentedTwice() {
+    Mockito.when(passwordEncoder.matches(PASSWORD, userLogin.getPassword())).thenReturn(true);
+
+    StepVerifier.create(authenticationManager.authenticate(token(userLogin.getUsername(), PASSWORD)))
+        .expectNextMatches(authentication -> authentication.isAuthenticated() && authentication.getPrincipal() == userLogin)
+        .verifyComplete();
+    StepVerifier.create(authenticationManager.authenticate(token(userLogin.getUsername(), PASSWORD)))
+        .expectNextMatches(authentication -> authentication.getPrincipal() == userLogin)
+        .verifyComplete();
+
+    Mockito.verify(passwordEncoder, Mockito.times(1)).matches(PASSWORD, userLogin.getPassword());
+  }
+
+  @Test
+  @DisplayName("SHOULD reject and not cache WHEN the password does not match")
+  void shouldRejectAndNotCacheWhenThePasswordDoesNotMatch() {
+    Mockito.when(passwordEncoder.matches(Mockito.anyString(), Mockito.anyString())).thenReturn(false);
+
+    StepVerifier.create(authenticationManager.authenticate(token(userLogin.getUsername(), "wrong")))
+        .expectError(BadCredentialsException.class)
+        .verify();
+    StepVerifier.create(authenticationManager.authenticate(token(userLogin.getUsername(), "wrong")))
+        .expectError(BadCredentialsException.class)
+        .verify();
+
+    Mockito.verify(passwordEncoder, Mockito.times(2)).matches("wrong", userLogin.getPassword());
+  }
+
+  @Test
+  @DisplayName("SHOULD reject WHEN the user does not exist")
+  void shouldRejectWhenTheUserDoesNotExist() {
+    StepVerifier.create(authenticationManager.authenticate(token("unknown", PASSWORD)))
+        .expectError(BadCredentialsException.class)
+        .verify();
+
+    Mockito.verifyNoInteractions(passwordEncoder);
+  }
+
+  @Test
+  @DisplayName("SHOULD reject without looking up the user WHEN no password is presented")
+  void shouldRejectWithoutLookingUpTheUserWhenNoPasswordIsPresented() {
+    StepVerifier.create(authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(userLogin.getUsername(), null)))
+        .expectError(BadCredentialsException.class)
+        .verify();
+
+    Mockito.verify(userDetailsService, Mockito.never()).findByUsername(Mockito.anyString());
+    Mockito.verifyNoInteractions(passwordEncoder);
+  }
+
+  private UsernamePasswordAuthenticationToken token(String username, String password) {
+    return new UsernamePasswordAuthenticationToken(username, password);
+  }
+
+}
@@ -0,0 +1,110 @@
+package dev.springwebflux.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dev.springwebflux.domain.Anime;
+import dev.springwebflux.domain.AnimeSuggestion;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class AnimeNameIndexTest {
+
+  AnimeNameIndex animeNameIndex;
+
+  @BeforeEach
+  void setUp() {
+    animeNameIndex = new AnimeNameIndex();
+    animeNameIndex.put(1, "Naruto", 1L);
+    animeNameIndex.put(2, "Naruto Shippuden", 1L);
+    animeNameIndex.put(3, "Nana", 1L);
+    animeNameIndex.put(4, "One Piece", 1L);
+  }
+
+  @Test
+  @DisplayName("SHOULD suggest names starting with the prefix in name order ignoring case")
+  void shouldSuggestNamesStartingWithThePrefixInNameOrderIgnoringCase() {
+    assertEquals(
+        List.of(new AnimeSuggestion(3, "Nana"), new AnimeSuggestion(1, "Naruto"), new AnimeSuggestion(2, "Naruto Shippuden")),
+        animeNameIndex.suggest("NA", 10));
+  }
+
+  @Test
+  @DisplayName("SHOULD stop at the limit")
+  void shouldStopAtTheLimit() {
+    assertEquals(List.of(new AnimeSuggestion(3, "Nana")), animeNameIndex.suggest("na", 1));
+  }
+
+  @Test
+  @DisplayName("SHOULD keep animes sharing the same name apart")
+  void shouldKeepAnimesSharingTheSameNameApart() {
+    animeNameIndex.put(5, "Naruto", 1L);
+
+    assertEquals(
+        List.of(new AnimeSuggestion(1, "Naruto"), new AnimeSuggestion(5, "Naruto")),
+        animeNameIndex.suggest("naruto", 2));
+  }
+
+  @Test
+  @DisplayName("SHOULD replace the previous name WHEN an anime is renamed")
+  void shouldReplaceThePreviousNameWhenAnAnimeIsRenamed() {
+    animeNameIndex.put(1, "Bleach", 2L);
+
+    assertEquals(List.of(new AnimeSuggestion(2, "Naruto Shippuden")), animeNameIndex.suggest("naruto", 10));
+    assertEquals(List.of(new AnimeSuggestion(1, "Bleach")), animeNameIndex.suggest("b", 10));
+    assertEquals(4, animeNameIndex.size());
+  }
+
+  @Test
+  @DisplayName("SHOULD keep the newer name WHEN an older rename arrives after it")
+  void shouldKeepTheNewerNameWhenAnOlderRenameArrivesAfterIt() {
+    animeNameIndex.put(1, "Bleach", 3L);
+    animeNameIndex.put(1, "Naruto 2", 2L);
+
+    assertEquals(List.of(new AnimeSuggestion(1, "Bleach")), animeNameIndex.suggest("b", 10));
+    assertEquals(List.of(new AnimeSuggestion(2, "Naruto Shippuden")), animeNameIndex.suggest("naruto", 10));
+    assertEquals(4, animeNameIndex.size());
+  }
+
+  @Test
+  @DisplayName("SHOULD forget removed animes and release their memory estimate")
+  void shouldForgetRemovedAnimesAndReleaseTheirMemoryEstimate() {
+    long before = animeNameIndex.estimatedMemoryBytes();
+
+    animeNameIndex.remove(4);
+    animeNameIndex.remove(42);
+
+    assertTrue(animeNameIndex.suggest("one", 10).isEmpty());
+    assertEquals(3, animeNameIndex.size());
+    assertTrue(animeNameIndex.estimatedMemoryBytes() < before);
+  }
+
+  @Test
+  @DisplayName("SHOULD keep live writes WHEN the bulk load returns older rows for the same ids")
+  void shouldKeepLiveWritesWhenTheBulkLoadReturnsOlderRowsForTheSameIds() {
+    animeNameIndex.startLoading();
+    animeNameIndex.put(1, "Bleach", 2L);
+    animeNameIndex.remove(4);
+
+    animeNameIndex.putLoaded(Anime.builder().id(1).name("Naruto").build());
+    animeNameIndex.putLoaded(Anime.builder().id(4).name("One Piece").build());
+    animeNameIndex.putLoaded(Anime.builder().id(5).name("Monster").build());
+    animeNameIndex.finishLoading();
+
+    assertEquals(List.of(new AnimeSuggestion(1, "Bleach")), animeNameIndex.suggest("b", 10));
+    assertTrue(animeNameIndex.suggest("one", 10).isEmpty());
+    assertEquals(List.of(new AnimeSuggestion(5, "Monster")), animeNameIndex.suggest("mon", 10));
+  }
+
+  @Test
+  @DisplayName("SHOULD share one String WHEN animes have the same name")
+  void shouldShareOneStringWhenAnimesHaveTheSameName() {
+    animeNameIndex.put(5, new String("Naruto"), 1L);
+
+    List<AnimeSuggestion> suggestions = animeNameIndex.suggest("naruto", 2);
+    assertSame(suggestions.get(0).getName(), suggestions.get(1).getName());
+  }
+}
@@ -5,7 +5,12 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import dev.springwebflux.config.properties.AnimeProperties;
 import dev.springwebflux.domain.Anime;
+import dev.springwebflux.domain.AnimeCatalogVersion;
+import dev.springwebflux.domain.AnimeImportProgress;
+import dev.springwebflux.domain.AnimeSuggestion;
+import dev.springwebflux.exception.BatchValidationException;
 import dev.springwebflux.repository.AnimeRepository;
 import dev.springwebflux.service.AnimeService;
 import dev.springwebflux.util.AnimeCreator;
@@ -18,8 +23,17 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.reactive.AbstractReactiveTransactionManager;
+import org.springframework.transaction.reactive.GenericReactiveTransaction;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import org.springframework.web.server.ResponseStatusException;
 import reactor.blockhound.BlockHound;
 import reactor.core.publisher.Flux;
@@ -31,6 +45,7 @@ class AnimeServiceImplTest {
 
   AnimeService animeService;
   AnimeRepository animeRepository;
+  AnimeNameIndex animeNameIndex;
 
   private final Anime anime = AnimeCreator.createValidAnime();
 
@@ -42,7 +57,11 @@ class AnimeServiceImplTest {
   @BeforeEach
   void setUp() {
     this.animeRepository = Mockito.mock(AnimeRepository.class);
-    animeService = new AnimeServiceImpl(animeRepository);
+    AnimeProperties animeProperties = new AnimeProperties();
+    animeProperties.getBatch().setChunkSize(2);
+    this.animeNameIndex = new AnimeNameIndex();
+    AnimeJsonCache animeJsonCache = new AnimeJsonCache(Jackson2ObjectMapperBuilder.json().build(), animeProperties);
+    animeService = new AnimeServiceImpl(animeRepository, animeProperties, animeNameIndex, animeJsonCache);
   }
 
   @Test()
@@ -78,6 +97,52 @@ class AnimeServiceImplTest {
         .verifyComplete();
   }
 
+  @Test
+  @DisplayName("SHOULD returns a page of anime capped at the maximum page size")
+  void shouldReturnsAPageOfAnimeCappedAtTheMaximumPageSize() {
+    Mockito.when(animeRepository.findPageAfter(0, AnimeService.MAX_PAGE_SIZE)).thenReturn(Flux.just(anime));
+
+    StepVerifier.create(animeService.findAll(0, AnimeService.MAX_PAGE_SIZE * 2))
+        .expectSubscription()
+        .expectNext(anime)
+        .verifyComplete();
+  }
+
+  @Test
+  @DisplayName("SHOULD stream every anime after the given id")
+  void shouldStreamEveryAnimeAfterTheGivenId() {
+    Mockito.when(animeRepository.findAllAfter(Mockito.eq(0), Mockito.anyInt())).thenReturn(Flux.just(anime, anime));
+
+    StepVerifier.create(animeService.streamAll(0))
+        .expectSubscription()
+        .expectNext(anime, anime)
+        .verifyComplete();
+  }
+
+  @Test
+  @DisplayName("SHOULD search anime by escaped lower case prefix and trimmed query")
+  void shouldSearchAnimeByEscapedLowerCasePrefixAndTrimmedQuery() {
+    Mockito.when(animeRepository.searchByName("100\\%\\_naru%", "100%_Naru", AnimeService.MAX_SEARCH_RESULTS))
+        .thenReturn(Flux.just(anime));
+
+    StepVerifier.create(animeService.search(" 100%_Naru ", AnimeService.MAX_SEARCH_RESULTS + 1))
+        .expectSubscription()
+        .expectNext(anime)
+        .verifyComplete();
+  }
+
+  @Test
+  @DisplayName("SHOULD returns the catalog version")
+  void shouldReturnsTheCatalogVersion() {
+    AnimeCatalogVersion catalogVersion = new AnimeCatalogVersion(1, 1);
+    Mockito.when(animeRepository.findCatalogVersion()).thenReturn(Mono.just(catalogVersion));
+
+    StepVerifier.create(animeService.findCatalogVersion())
+        .expectSubscription()
+        .expectNext(catalogVersion)
+        .verifyComplete();
+  }
+
   @Test
   @DisplayName("SHOULD returns Mono with anime when it exists")
   void shouldReturnsMonoWithAnimeWhenItExists() {
@@ -109,7 +174,7 @@ class AnimeServiceImplTest {
   @DisplayName("SHOULD save an anime")
   void shouldSaveAnAnime() {
     Anime animeToBeSaved = AnimeCreator.createAnimeToBeSaved();
-    Mockito.when(animeRepository.save(Mockito.any(Anime.class))).thenReturn(Mono.just(anime));
+    Mockito.when(animeRepository.insertAll(Mockito.anyList())).thenReturn(Flux.just(anime));
 
     StepVerifier.create(animeService.save(animeToBeSaved))
         .expectSubscription()
@@ -117,11 +182,23 @@ class AnimeServiceImplTest {
         .verifyComplete();
   }
 
+  @Test
+  @DisplayName("SHOULD insert a new anime WHEN the anime to save carries an id and a version")
+  void shouldInsertANewAnimeWhenTheAnimeToSaveCarriesAnIdAndAVersion() {
+    Mockito.when(animeRepository.insertAll(Mockito.anyList())).thenReturn(Flux.just(anime));
+
+    StepVerifier.create(animeService.save(AnimeCreator.createAnimeToBeSaved().withId(5).withVersion(7L)))
+        .expectNext(anime)
+        .verifyComplete();
+
+    Mockito.verify(animeRepository).insertAll(List.of(AnimeCreator.createAnimeToBeSaved()));
+  }
+
   @Test
   @DisplayName("SHOULD save an anime list")
   void shouldSaveAnAnimeList() {
     Anime animeToBeSaved = AnimeCreator.createAnimeToBeSaved();
-    Mockito.when(animeRepository.saveAll(Mockito.anyList())).thenReturn(Flux.just(anime, anime));
+    Mockito.when(animeRepository.insertAll(Mockito.anyList())).thenReturn(Flux.just(anime, anime));
 
     StepVerifier.create(animeService.saveAll(List.of(animeToBeSaved, animeToBeSaved)))
         .expectSubscription()
@@ -129,24 +206,77 @@ class AnimeServiceImplTest {
         .verifyComplete();
   }
 
+  @Test
+  @DisplayName("SHOULD not suggest a saved anime list WHEN its transaction fails to commit")
+  void shouldNotSuggestASavedAnimeListWhenItsTransactionFailsToCommit() {
+    Mockito.when(animeRepository.insertAll(Mockito.anyList())).thenReturn(Flux.just(anime));
+    TransactionalOperator failingCommit = TransactionalOperator.create(new FailingCommitTransactionManager());
+
+    StepVerifier.create(animeService.saveAll(List.of(AnimeCreator.createAnimeToBeSaved())).as(failingCommit::transactional))
+        .expectNext(anime)
+        .expectError(TransactionException.class)
+        .verify();
+
+    assertTrue(animeNameIndex.suggest("nar", 10).isEmpty());
+  }
+
   @Test
   @DisplayName("SHOULD throw error when one of the objects in the anime list to be saved contains a null or empty name")
   void shouldThrowErrorWhenOneOfTheObjectsInTheAnimeListToBeSavedContainsANullOrEmptyName() {
     Anime animeToBeSaved = AnimeCreator.createAnimeToBeSaved();
-    Mockito.when(animeRepository.saveAll(Mockito.anyList())).thenReturn(Flux.just(anime, anime.withName("")));
 
     StepVerifier.create(animeService.saveAll(List.of(animeToBeSaved, animeToBeSaved.withName(""))))
         .expectSubscription()
-        .expectNext(anime)
-        .expectError(ResponseStatusException.class)
+        .expectErrorSatisfies(throwable -> {
+          assertThat(throwable).isInstanceOf(BatchValidationException.class);
+          BatchValidationException exception = (BatchValidationException) throwable;
+          assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+          assertEquals(1, exception.getErrorCount());
+          assertEquals(1, exception.getErrors().get(0).getIndex());
+          assertEquals("name", exception.getErrors().get(0).getField());
+        })
+        .verify();
+
+    Mockito.verify(animeRepository, Mockito.never()).insertAll(Mockito.anyList());
+  }
+
+  @Test
+  @DisplayName("SHOULD import an anime stream chunk by chunk")
+  void shouldImportAnAnimeStreamChunkByChunk() {
+    Anime animeToBeSaved = AnimeCreator.createAnimeToBeSaved();
+    Mockito.when(animeRepository.insertAll(Mockito.anyList()))
+        .thenReturn(Flux.just(anime, anime))
+        .thenReturn(Flux.just(anime));
+
+    StepVerifier.create(animeService.importAll(Flux.just(animeToBeSaved, animeToBeSaved, animeToBeSaved)))
+        .expectSubscription()
+        .expectNext(new AnimeImportProgress(0, 2, 2))
+        .expectNext(new AnimeImportProgress(1, 1, 3))
+        .verifyComplete();
+  }
+
+  @Test
+  @DisplayName("SHOULD stop the import at the first chunk containing a null or empty name")
+  void shouldStopTheImportAtTheFirstChunkContainingANullOrEmptyName() {
+    Anime animeToBeSaved = AnimeCreator.createAnimeToBeSaved();
+    Mockito.when(animeRepository.insertAll(Mockito.anyList())).thenReturn(Flux.just(anime, anime));
+
+    StepVerifier.create(animeService.importAll(Flux.just(animeToBeSaved, animeToBeSaved, animeToBeSaved.withName(""))))
+        .expectSubscription()
+        .expectNext(new AnimeImportProgress(0, 2, 2))
+        .expectErrorSatisfies(throwable -> {
+          assertThat(throwable).isInstanceOf(BatchValidationException.class);
+          assertEquals(2, ((BatchValidationException) throwable).getErrors().get(0).getIndex());
+        })
         .verify();
+
+    Mockito.verify(animeRepository, Mockito.times(1)).insertAll(Mockito.anyList());
   }
 
   @Test
   @DisplayName("SHOULD delete an anime")
   void shouldDeleteAnAnime() {
-    Mockito.when(animeRepository.findById(Mockito.anyInt())).thenReturn(Mono.just(anime));
-    Mockito.when(animeRepository.delete(Mockito.any(Anime.class))).thenReturn(Mono.empty());
+    Mockito.when(animeRepository.deleteAnimeById(Mockito.anyInt())).thenReturn(Mono.just(1));
 
     StepVerifier.create(animeService.delete(1))
         .expectSubscription()
@@ -156,7 +286,7 @@ class AnimeServiceImplTest {
   @Test
   @DisplayName("SHOULD throw an error when trying delete an anime that does not exist")
   void shouldThrowAnErrorWhenTryingDeleteAnAnimeThatDoesNotExist() {
-    Mockito.when(animeRepository.findById(Mockito.anyInt())).thenReturn(Mono.empty());
+    Mockito.when(animeRepository.deleteAnimeById(Mockito.anyInt())).thenReturn(Mono.just(0));
 
     StepVerifier.create(animeService.delete(1))
         .expectSubscription()
@@ -172,18 +302,51 @@ class AnimeServiceImplTest {
   @Test
   @DisplayName("SHOULD update an anime")
   void shouldUpdateAnAnime() {
-    Mockito.when(animeRepository.findById(Mockito.anyInt())).thenReturn(Mono.just(anime));
-    Mockito.when(animeRepository.save(Mockito.any(Anime.class))).thenReturn(Mono.just(AnimeCreator.createValidUpdateAnime()));
+    Mockito.when(animeRepository.updateName(Mockito.anyInt(), Mockito.anyString())).thenReturn(Mono.just(4L));
 
     StepVerifier.create(animeService.update(AnimeCreator.createValidUpdateAnime()))
         .expectSubscription()
         .verifyComplete();
   }
 
+  @Test
+  @DisplayName("SHOULD update an anime WHEN its version still matches")
+  void shouldUpdateAnAnimeWhenItsVersionStillMatches() {
+    Mockito.when(animeRepository.updateNameIfVersion(1, "Naruto 2", 3L)).thenReturn(Mono.just(4L));
+
+    StepVerifier.create(animeService.update(AnimeCreator.createValidUpdateAnime().withVersion(3L)))
+        .expectSubscription()
+        .verifyComplete();
+  }
+
+  @Test
+  @DisplayName("SHOULD throw a conflict WHEN the anime was updated since the given version")
+  void shouldThrowAConflictWhenTheAnimeWasUpdatedSinceTheGivenVersion() {
+    Mockito.when(animeRepository.updateNameIfVersion(Mockito.anyInt(), Mockito.anyString(), Mockito.anyLong())).thenReturn(Mono.empty());
+    Mockito.when(animeRepository.existsById(1)).thenReturn(Mono.just(true));
+
+    StepVerifier.create(animeService.update(AnimeCreator.createValidUpdateAnime().withVersion(3L)))
+        .expectSubscription()
+        .expectError(OptimisticLockingFailureException.class)
+        .verify();
+  }
+
+  @Test
+  @DisplayName("SHOULD throw not found WHEN a versioned update targets an anime that does not exist")
+  void shouldThrowNotFoundWhenAVersionedUpdateTargetsAnAnimeThatDoesNotExist() {
+    Mockito.when(animeRepository.updateNameIfVersion(Mockito.anyInt(), Mockito.anyString(), Mockito.anyLong())).thenReturn(Mono.empty());
+    Mockito.when(animeRepository.existsById(1)).thenReturn(Mono.just(false));
+
+    StepVerifier.create(animeService.update(AnimeCreator.createValidUpdateAnime().withVersion(3L)))
+        .expectSubscription()
+        .expectErrorSatisfies(throwable -> assertEquals(HttpStatus.NOT_FOUND, ((ResponseStatusException) throwable).getStatus()))
+        .verify();
+  }
+
   @Test
   @DisplayName("SHOULD throw an error when trying update an anime that does not exist")
   void shouldThrowAnErrorWhenTryingUpdateAnAnimeThatDoesNotExist() {
-    Mockito.when(animeRepository.findById(Mockito.anyInt())).thenReturn(Mono.empty());
+    Mockito.when(animeRepository.updateName(Mockito.anyInt(), Mockito.anyString())).thenReturn(Mono.empty());
 
     StepVerifier.create(animeService.update(AnimeCreator.createValidUpdateAnime()))
         .expectSubscription()
@@ -196,4 +359,73 @@ class AnimeServiceImplTest {
         .verify();
   }
 
-}
\ No newline at end of file
+  @Test
+  @DisplayName("SHOULD suggest names indexed by save, update and delete")
+  void shouldSuggestNamesIndexedBySaveUpdateAndDelete() {
+    Mockito.when(animeRepository.insertAll(Mockito.anyList())).thenReturn(Flux.just(anime));
+    Mockito.when(animeRepository.updateName(Mockito.anyInt(), Mockito.anyString())).thenReturn(Mono.just(4L));
+    Mockito.when(animeRepository.deleteAnimeById(Mockito.anyInt())).thenReturn(Mono.just(1));
+
+    StepVerifier.create(animeService.save(AnimeCreator.createAnimeToBeSaved()).then(animeService.suggest("nar", 10).collectList()))
+        .expectNext(List.of(new AnimeSuggestion(1, "Naruto")))
+        .verifyComplete();
+
+    StepVerifier.create(animeService.update(AnimeCreator.createValidUpdateAnime()).thenMany(animeService.suggest("NARUTO ", 10)))
+        .expectNext(new AnimeSuggestion(1, "Naruto 2"))
+        .verifyComplete();
+
+    StepVerifier.create(animeService.delete(1).thenMany(animeService.suggest("nar", 10)))
+        .verifyComplete();
+    assertEquals(0, animeNameIndex.size());
+  }
+
+  @Test
+  @DisplayName("SHOULD not index names WHEN the update fails")
+  void shouldNotIndexNamesWhenTheUpdateFails() {
+    animeNameIndex.put(anime);
+    Mockito.when(animeRepository.updateName(Mockito.anyInt(), Mockito.anyString())).thenReturn(Mono.empty());
+
+    StepVerifier.create(animeService.update(AnimeCreator.createValidUpdateAnime()))
+        .expectError(ResponseStatusException.class)
+        .verify();
+
+    assertEquals(List.of(new AnimeSuggestion(1, "Naruto")), animeNameIndex.suggest("naruto", 10));
+  }
+
+  @Test
+  @DisplayName("SHOULD cap suggestions at MAX_SUGGESTIONS")
+  void shouldCapSuggestionsAtMaxSuggestions() {
+    for (int id = 1; id <= AnimeService.MAX_SUGGESTIONS + 10; id++)
+      animeNameIndex.put(id, "Naruto " + id, 1L);
+
+    StepVerifier.create(animeService.suggest("naruto", 1000))
+        .expectNextCount(AnimeService.MAX_SUGGESTIONS)
+        .verifyComplete();
+  }
+
+  private static class FailingCommitTransactionManager extends AbstractReactiveTransactionManager {
+
+    @Override
+    protected Object doGetTransaction(TransactionSynchronizationManager synchronizationManager) {
+      return new Object();
+    }
+
+    @Override
+    protected Mono<Void> doBegin(TransactionSynchronizationManager synchronizationManager, Object transaction,
+                                 TransactionDefinition definition) {
+      return Mono.empty();
+    }
+
+    @Override
+    protected Mono<Void> doCommit(TransactionSynchronizationManager synchronizationManager,
+                                  GenericReactiveTransaction status) {
+      return Mono.error(new TransactionSystemException("Commit failed"));
+    }
+
+    @Override
+    protected Mono<Void> doRollback(TransactionSynchronizationManager synchronizationManager,
+                                    GenericReactiveTransaction status) {
+      return Mono.empty();
+    }
+  }
+}
@@ -0,0 +1,179 @@
+package dev.springwebflux.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+import dev.springwebflux.config.properties.AnimeProperties;
+import dev.springwebflux.domain.Anime;
+import dev.springwebflux.util.AnimeCreator;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.blockhound.BlockHound;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.test.StepVerifier;
+
+@ExtendWith(SpringExtension.class)
+class CachingAnimeServiceTest {
+
+  CachingAnimeService cachingAnimeService;
+  AnimeServiceImpl animeService;
+
+  private final Anime anime = AnimeCreator.createValidAnime();
+
+  @BeforeAll
+  static void blockHoundSetup() {
+    BlockHound.install();
+  }
+
+  @BeforeEach
+  void setUp() {
+    animeService = Mockito.mock(AnimeServiceImpl.class);
+    cachingAnimeService = new CachingAnimeService(animeService, new AnimeProperties());
+  }
+
+  @Test
+  @DisplayName("SHOULD load an anime only once WHEN it is requested twice")
+  void shouldLoadAnAnimeOnlyOnceWhenItIsRequestedTwice() {
+    Mockito.when(animeService.findById(1)).thenReturn(Mono.just(anime));
+
+    StepVerifier.create(cachingAnimeService.findById(1))
+        .expectNext(anime)
+        .verifyComplete();
+    StepVerifier.create(cachingAnimeService.findById(1))
+        .expectNext(anime)
+        .verifyComplete();
+
+    Mockito.verify(animeService, Mockito.times(1)).findById(1);
+    assertEquals(1, cachingAnimeService.stats().hitCount());
+  }
+
+  @Test
+  @DisplayName("SHOULD share one load WHEN concurrent requests miss the same id")
+  void shouldShareOneLoadWhenConcurrentRequestsMissTheSameId() {
+    AtomicInteger subscriptions = new AtomicInteger();
+    Mockito.when(animeService.findById(1)).thenReturn(
+        Mono.delay(Duration.ofMillis(50)).map(tick -> anime).doOnSubscribe(s -> subscriptions.incrementAndGet()));
+
+    StepVerifier.create(Flux.merge(cachingAnimeService.findById(1), cachingAnimeService.findById(1)))
+        .expectNext(anime, anime)
+        .verifyComplete();
+
+    assertEquals(1, subscriptions.get());
+  }
+
+  @Test
+  @DisplayName("SHOULD cache not found results")
+  void shouldCacheNotFoundResults() {
+    Mockito.when(animeService.findById(1))
+        .thenReturn(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Anime not found")));
+
+    StepVerifier.create(cachingAnimeService.findById(1))
+        .expectError(ResponseStatusException.class)
+        .verify();
+    StepVerifier.create(cachingAnimeService.findById(1))
+        .expectError(ResponseStatusException.class)
+        .verify();
+
+    Mockito.verify(animeService, Mockito.times(1)).findById(1);
+  }
+
+  @Test
+  @DisplayName("SHOULD reload an anime WHEN it was updated")
+  void shouldReloadAnAnimeWhenItWasUpdated() {
+    Anime updatedAnime = AnimeCreator.createValidUpdateAnime();
+    Mockito.when(animeService.findById(1)).thenReturn(Mono.just(anime), Mono.just(updatedAnime));
+    Mockito.when(animeService.update(updatedAnime)).thenReturn(Mono.empty());
+
+    StepVerifier.create(cachingAnimeService.findById(1))
+        .expectNext(anime)
+        .verifyComplete();
+    StepVerifier.create(cachingAnimeService.update(updatedAnime))
+        .verifyComplete();
+    StepVerifier.create(cachingAnimeService.findById(1))
+        .expectNext(updatedAnime)
+        .verifyComplete();
+  }
+
+  @Test
+  @DisplayName("SHOULD not cache the old anime WHEN its load finishes after an update")
+  void shouldNotCacheTheOldAnimeWhenItsLoadFinishesAfterAnUpdate() {
+    Anime updatedAnime = AnimeCreator.createValidUpdateAnime();
+    MonoProcessor<Anime> slowLoad = MonoProcessor.create();
+    Mockito.when(animeService.findById(1)).thenReturn(slowLoad, Mono.just(updatedAnime));
+    Mockito.when(animeService.update(updatedAnime)).thenReturn(Mono.empty());
+
+    StepVerifier.create(cachingAnimeService.findById(1))
+        .then(() -> StepVerifier.create(cachingAnimeService.update(updatedAnime)).verifyComplete())
+        .then(() -> slowLoad.onNext(anime))
+        .expectNext(anime)
+        .verifyComplete();
+    StepVerifier.create(cachingAnimeService.findById(1))
+        .expectNext(updatedAnime)
+        .verifyComplete();
+
+    Mockito.verify(animeService, Mockito.times(2)).findById(1);
+  }
+
+  @Test
+  @DisplayName("SHOULD hand out copies WHEN a cached anime is modified by a caller")
+  void shouldHandOutCopiesWhenACachedAnimeIsModifiedByACaller() {
+    Mockito.when(animeService.findById(1)).thenReturn(Mono.just(anime));
+
+    Anime first = cachingAnimeService.findById(1).block();
+    first.setName("Changed by a caller");
+
+    StepVerifier.create(cachingAnimeService.findById(1))
+        .expectNextMatches(cached -> cached.equals(anime) && cached != first)
+        .verifyComplete();
+    assertNotSame(anime, first);
+  }
+
+  @Test
+  @DisplayName("SHOULD forget not found results WHEN the id is created by a batch")
+  void shouldForgetNotFoundResultsWhenTheIdIsCreatedByABatch() {
+    Mockito.when(animeService.findById(1))
+        .thenReturn(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Anime not found")), Mono.just(anime));
+    Mockito.when(animeService.saveAll(Mockito.anyList())).thenReturn(Flux.just(anime));
+
+    StepVerifier.create(cachingAnimeService.findById(1))
+        .expectError(ResponseStatusException.class)
+        .verify();
+    StepVerifier.create(cachingAnimeService.saveAll(List.of(AnimeCreator.createAnimeToBeSaved())))
+        .expectNext(anime)
+        .verifyComplete();
+    StepVerifier.create(cachingAnimeService.findById(1))
+        .expectNext(anime)
+        .verifyComplete();
+  }
+
+  @Test
+  @DisplayName("SHOULD forget not found results WHEN they were loaded before the batch committed")
+  void shouldForgetNotFoundResultsWhenTheyWereLoadedBeforeTheBatchCommitted() {
+    MonoProcessor<Void> commit = MonoProcessor.create();
+    Mockito.when(animeService.findById(1))
+        .thenReturn(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Anime not found")), Mono.just(anime));
+    Mockito.when(animeService.saveAll(Mockito.anyList())).thenReturn(Flux.just(anime).concatWith(commit.then(Mono.empty())));
+
+    StepVerifier.create(cachingAnimeService.saveAll(List.of(AnimeCreator.createAnimeToBeSaved())))
+        .expectNext(anime)
+        .then(() -> StepVerifier.create(cachingAnimeService.findById(1)).expectError(ResponseStatusException.class).verify())
+        .then(commit::onComplete)
+        .verifyComplete();
+    StepVerifier.create(cachingAnimeService.findById(1))
+        .expectNext(anime)
+        .verifyComplete();
+  }
+
+}
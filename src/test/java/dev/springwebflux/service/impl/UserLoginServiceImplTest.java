@@ -0,0 +1,83 @@
+package dev.springwebflux.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import dev.springwebflux.config.properties.AuthProperties;
+import dev.springwebflux.domain.UserLogin;
+import dev.springwebflux.repository.UserLoginRepository;
+import dev.springwebflux.util.UserLoginCreator;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import reactor.blockhound.BlockHound;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(SpringExtension.class)
+class UserLoginServiceImplTest {
+
+  UserLoginServiceImpl userLoginService;
+  UserLoginRepository userLoginRepository;
+
+  private final UserLogin userLogin = UserLoginCreator.createAdminUser();
+
+  @BeforeAll
+  static void blockHoundSetup() {
+    BlockHound.install();
+  }
+
+  @BeforeEach
+  void setUp() {
+    userLoginRepository = Mockito.mock(UserLoginRepository.class);
+    userLoginService = new UserLoginServiceImpl(userLoginRepository, new AuthProperties());
+  }
+
+  @Test
+  @DisplayName("SHOULD hit the repository only once WHEN the same user is requested twice")
+  void shouldHitTheRepositoryOnlyOnceWhenTheSameUserIsRequestedTwice() {
+    Mockito.when(userLoginRepository.findByUsername(userLogin.getUsername())).thenReturn(Mono.just(userLogin));
+
+    StepVerifier.create(userLoginService.findByUsername(userLogin.getUsername()))
+        .expectNext(userLogin)
+        .verifyComplete();
+    StepVerifier.create(userLoginService.findByUsername(userLogin.getUsername()))
+        .expectNext(userLogin)
+        .verifyComplete();
+
+    Mockito.verify(userLoginRepository, Mockito.times(1)).findByUsername(userLogin.getUsername());
+    assertEquals(1, userLoginService.stats().hitCount());
+    assertEquals(1, userLoginService.stats().missCount());
+  }
+
+  @Test
+  @DisplayName("SHOULD not cache WHEN the user does not exist")
+  void shouldNotCacheWhenTheUserDoesNotExist() {
+    Mockito.when(userLoginRepository.findByUsername(Mockito.anyString())).thenReturn(Mono.empty());
+
+    StepVerifier.create(userLoginService.findByUsername("unknown"))
+        .verifyComplete();
+
+    assertEquals(0, userLoginService.estimatedSize());
+  }
+
+  @Test
+  @DisplayName("SHOULD reload the user WHEN it was evicted")
+  void shouldReloadTheUserWhenItWasEvicted() {
+    Mockito.when(userLoginRepository.findByUsername(userLogin.getUsername())).thenReturn(Mono.just(userLogin));
+
+    StepVerifier.create(userLoginService.findByUsername(userLogin.getUsername()))
+        .expectNext(userLogin)
+        .verifyComplete();
+    userLoginService.evict(userLogin.getUsername());
+    StepVerifier.create(userLoginService.findByUsername(userLogin.getUsername()))
+        .expectNext(userLogin)
+        .verifyComplete();
+
+    Mockito.verify(userLoginRepository, Mockito.times(2)).findByUsername(userLogin.getUsername());
+  }
+
+}
@@ -0,0 +1,14 @@
+package dev.springwebflux.util;
+
+import dev.springwebflux.domain.UserLogin;
+
+public class UserLoginCreator {
+
+  private static final String ADMIN_USERNAME = "wall";
+  private static final String PASSWORD = "{bcrypt}$2a$10$FToxnhlpn58TXi55Atms.uBdLGWn4SvxzGd5GhceFUyBRp.39Mw4W";
+
+  public static UserLogin createAdminUser() {
+    return new UserLogin(1, "wallacy", ADMIN_USERNAME, PASSWORD, "ROLE_ADMIN,ROLE_USER");
+  }
+
+}
@@ -0,0 +1,26 @@
+-- H2 version of database/init.sql. The pg_trgm extension and its indexes have no H2 equivalent,
+-- so trigram search is left out of the load test mix.
+create sequence anime_version_seq;
+
+create table anime(
+	id int auto_increment primary key,
+	name varchar,
+	updated_at timestamp not null default now(),
+	version bigint not null default nextval('anime_version_seq')
+);
+
+create index anime_name_lower_prefix_index on anime (lower(name));
+
+create index anime_version_index on anime (version);
+
+create table user_login(
+	id int auto_increment primary key,
+	name varchar(255) not null,
+	username varchar(100) not null,
+	password varchar(150) not null,
+	authorities varchar(150) not null
+);
+
+insert into user_login (name, username, password, authorities) values('wallacy', 'wall', '{bcrypt}$2a$10$FToxnhlpn58TXi55Atms.uBdLGWn4SvxzGd5GhceFUyBRp.39Mw4W', 'ROLE_ADMIN,ROLE_USER');
+
+insert into anime (name) select 'Anime ' || x from system_range(1, 10000);